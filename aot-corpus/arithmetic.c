@@ -0,0 +1,10 @@
+int main() {
+  int a = 3 + 4;
+  int b = a * 5;
+  int c = b - a;
+  int d = c / 3;
+  int e = d % 4;
+  int f = a + b + c + d + e;
+  int g = f * a - b * c + d / 2;
+  return g + a * b - c % 7 + e;
+}
@@ -0,0 +1,8 @@
+int main() {
+  int x = 17;
+  int y = x * x - 3;
+  int z = y / 7 + y % 5;
+  int w = z * 8 + x * 4 - y * 2;
+  int q = (w - z) * (x + y) / (z + 1);
+  return q % 256;
+}
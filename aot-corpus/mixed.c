@@ -0,0 +1,9 @@
+int main() {
+  int a = 11; int b = 22; int c = 33; int d = 44; int e = 55; int f = 66; int g = 77;
+  int h = a * 3 + 1; int i = b * 5 - 2; int j = c + d * 2; int k = e - f + g * 3;
+  int l = h / 7; int m = i % 9; int n = j / b; int o = k % c;
+  int p = a / 2 + b / 3 + c / 4 + d / 5 + e / 6 + f / 7 + g / 8;
+  int q = h + i + j + k + l + m + n + o + p;
+  int r = (a + b) / (c - d + 100) + (e * f) % (g + 1) + h % i + j / (k + 1);
+  return (q + r + a + b + c + d + e + f + g + h + i + j + k + l + m + n + o + p) % 256;
+}
@@ -0,0 +1,7 @@
+int main() {
+  int a = 1; int b = 2; int c = 3; int d = 4; int e = 5; int f = 6; int g = 7; int h = 8;
+  int s = a*b + c*d + e*f + g*h;
+  int t = (a+b)*(c+d)*(e+f) - (g+h);
+  int u = s * t + a - b + c - d + e - f + g - h;
+  return (u + s * a + t * b + c * d * e) % 200;
+}
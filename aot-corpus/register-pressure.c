@@ -0,0 +1,64 @@
+int main() {
+  int v0 = 16 + 0;
+  int v1 = 38 + 1;
+  int v2 = 35 + 2;
+  int v3 = 9 + 3;
+  int v4 = 24 + 4;
+  int v5 = 39 + 5;
+  int v6 = 31 + 6;
+  int v7 = 41 + 7;
+  int v8 = 38 + 8;
+  int v9 = 5 + 9;
+  int v10 = 39 + 10;
+  int v11 = 1 + 11;
+  int v12 = 31 + 12;
+  int v13 = 17 + 13;
+  int v14 = 36 + 14;
+  int v15 = 15 + 15;
+  int v16 = 13 + 16;
+  int v17 = 46 + 17;
+  int v18 = 31 + 18;
+  int v19 = 35 + 19;
+  int v20 = 36 + 20;
+  int v21 = 31 + 21;
+  int v22 = 26 + 22;
+  int v23 = 41 + 23;
+  int v24 = 10 + 24;
+  int v25 = 15 + 25;
+  int v26 = 41 + 26;
+  int v27 = 10 + 27;
+  int v28 = 34 + 28;
+  int v29 = 25 + 29;
+  v0 = v0 * 2 + v7 - v3 / 3;
+  v1 = v1 * 3 + v8 - v4 / 2;
+  v2 = v2 * 4 + v9 - v5 / 2;
+  v3 = v3 * 4 + v10 - v6 / 9;
+  v4 = v4 * 5 + v11 - v7 / 8;
+  v5 = v5 * 5 + v12 - v8 / 9;
+  v6 = v6 * 3 + v13 - v9 / 7;
+  v7 = v7 * 2 + v14 - v10 / 2;
+  v8 = v8 * 3 + v15 - v11 / 9;
+  v9 = v9 * 3 + v16 - v12 / 6;
+  v10 = v10 * 5 + v17 - v13 / 6;
+  v11 = v11 * 5 + v18 - v14 / 8;
+  v12 = v12 * 4 + v19 - v15 / 8;
+  v13 = v13 * 3 + v20 - v16 / 7;
+  v14 = v14 * 2 + v21 - v17 / 6;
+  v15 = v15 * 3 + v22 - v18 / 7;
+  v16 = v16 * 2 + v23 - v19 / 5;
+  v17 = v17 * 4 + v24 - v20 / 6;
+  v18 = v18 * 2 + v25 - v21 / 3;
+  v19 = v19 * 5 + v26 - v22 / 9;
+  v20 = v20 * 2 + v27 - v23 / 7;
+  v21 = v21 * 2 + v28 - v24 / 8;
+  v22 = v22 * 3 + v29 - v25 / 2;
+  v23 = v23 * 4 + v0 - v26 / 8;
+  v24 = v24 * 5 + v1 - v27 / 3;
+  v25 = v25 * 2 + v2 - v28 / 2;
+  v26 = v26 * 5 + v3 - v29 / 7;
+  v27 = v27 * 4 + v4 - v0 / 5;
+  v28 = v28 * 2 + v5 - v1 / 6;
+  v29 = v29 * 2 + v6 - v2 / 3;
+  int s = v0 + v1 + v2 + v3 + v4 + v5 + v6 + v7 + v8 + v9 + v10 + v11 + v12 + v13 + v14 + v15 + v16 + v17 + v18 + v19 + v20 + v21 + v22 + v23 + v24 + v25 + v26 + v27 + v28 + v29;
+  return s % 256;
+}
\ No newline at end of file
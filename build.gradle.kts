@@ -1,6 +1,7 @@
 plugins {
     id("java")
     application
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "edu.kit.kastel.logic"
@@ -27,4 +28,96 @@ java {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Benchmarks of the compiler phases in src/jmh, run with ./gradlew jmh (-PjmhIncludes=<regex> to select some).
+// The results are written to build/results/jmh/results.json for comparing runs.
+jmh {
+    jmhVersion = "1.37"
+    resultFormat = "JSON"
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+}
+
+// Compile time and memory of each pass for generated programs of increasing size, see ScalingBenchmark
+// for the options, e.g. ./gradlew scaling -PscalingArgs="--sizes 1000,2000,4000 --profile l1"
+val scaling by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Measures how the compiler passes scale with the size of generated programs."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "edu.kit.kastel.vads.compiler.ScalingBenchmark"
+    jvmArgs("-Xss64m") // instruction selection recurses along the side effect chain
+    args(providers.gradleProperty("scalingArgs").orElse("").get().split(" ").filter { it.isNotBlank() })
+    args("--output", layout.buildDirectory.dir("scaling").get().asFile)
+}
+
+// Runtime of the produced executables compared to gcc -O0/-O2 on the programs in runtime-corpus,
+// see RuntimeBenchmark (uses perf stat if installed), e.g. ./gradlew runtimeBenchmark -PruntimeArgs="--runs 20"
+val runtimeBenchmark by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Runs the executables compiled from runtime-corpus and compares them with gcc."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass = "edu.kit.kastel.vads.compiler.RuntimeBenchmark"
+    jvmArgs("-Xss64m")
+    args(providers.gradleProperty("runtimeArgs").orElse("").get().split(" ").filter { it.isNotBlank() })
+    args("--corpus", layout.projectDirectory.dir("runtime-corpus").asFile)
+    args("--output", layout.buildDirectory.dir("runtime").get().asFile)
+}
+// AOT cache (JEP 483): createAotCache runs the installed compiler over a corpus of sample programs
+// and stores the classes loaded and linked during that run in lib/compiler.aot of the installation.
+// The start script passes the cache to the JVM if it exists, which saves class loading at startup.
+val aotCorpus = layout.projectDirectory.dir("aot-corpus")
+val aotConfiguration = layout.buildDirectory.file("aot/compiler.aotconf")
+val aotCache = layout.buildDirectory.file("install/compiler/lib/compiler.aot")
+val installedCompiler = layout.buildDirectory.file("install/compiler/bin/compiler")
+// the installed jars the cache is trained on, i.e. the installation without the cache itself
+val installedJars = files(tasks.installDist).asFileTree.matching { exclude("lib/compiler.aot") }
+val aotJavaHome = javaToolchains.launcherFor {
+    languageVersion = java.toolchain.languageVersion
+}.map { it.metadata.installationPath.asFile.absolutePath }
+
+tasks.installDist {
+    preserve { include("lib/compiler.aot") } // created after the installation, see below
+}
+
+tasks.startScripts {
+    doLast {
+        val aotOption = "\nif [ -f \"\$APP_HOME/lib/compiler.aot\" ]; then\n" +
+            "    DEFAULT_JVM_OPTS=\"\$DEFAULT_JVM_OPTS \\\"-XX:AOTCache=\$APP_HOME/lib/compiler.aot\\\"\"\nfi"
+        val script = unixScript.readText()
+        val end = Regex("^DEFAULT_JVM_OPTS=.*$", RegexOption.MULTILINE).find(script)!!.range.last + 1
+        unixScript.writeText(script.substring(0, end) + aotOption + script.substring(end))
+    }
+}
+
+val recordAotConfiguration by tasks.registering(Exec::class) {
+    description = "Records the classes used when compiling the AOT corpus."
+    dependsOn(tasks.installDist)
+    inputs.dir(aotCorpus)
+    inputs.files(installedJars).withPropertyName("installedJars")
+    outputs.file(aotConfiguration)
+    executable(installedCompiler.get().asFile)
+    args("--batch", aotCorpus.asFile, temporaryDir)
+    doFirst {
+        delete(aotCache) // the start script would pass an outdated cache to the training run
+        aotConfiguration.get().asFile.parentFile.mkdirs()
+        environment("JAVA_HOME", aotJavaHome.get())
+        environment("JAVA_OPTS", "-XX:AOTMode=record -XX:AOTConfiguration=${aotConfiguration.get().asFile}")
+    }
+}
+
+val createAotCache by tasks.registering(Exec::class) {
+    group = "distribution"
+    description = "Installs the compiler together with an AOT cache trained on the AOT corpus."
+    dependsOn(recordAotConfiguration)
+    inputs.file(aotConfiguration)
+    inputs.files(installedJars).withPropertyName("installedJars")
+    outputs.file(aotCache)
+    // the module path has to match the training run, so the same start script is used
+    executable(installedCompiler.get().asFile)
+    args("--batch", aotCorpus.asFile, temporaryDir)
+    doFirst {
+        environment("JAVA_HOME", aotJavaHome.get())
+        environment("JAVA_OPTS", "-XX:AOTMode=create -XX:AOTConfiguration=${aotConfiguration.get().asFile}"
+            + " -XX:AOTCache=${aotCache.get().asFile}")
+    }
+}
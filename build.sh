@@ -2,3 +2,5 @@
 set -e
 cd "$(dirname "$0")"
 ./gradlew --no-daemon installDist
+# the AOT cache only speeds up startup, the compiler works without it
+./gradlew --no-daemon createAotCache || echo "Creating the AOT cache failed, the compiler will start without it" >&2
@@ -1,3 +1,23 @@
 #!/usr/bin/env sh
 BIN_DIR="$(dirname "$0")/build/install/compiler/bin"
-$BIN_DIR/compiler "$@"
\ No newline at end of file
+# delegate to a running compile server (started with --server "$COMPILER_SOCKET"), if any
+if [ -n "$COMPILER_SOCKET" ] && [ -S "$COMPILER_SOCKET" ] && [ "$#" -eq 2 ]; then
+    # a netcat supporting Unix domain sockets avoids starting a JVM for the request (see Server for the protocol)
+    if command -v nc >/dev/null 2>&1 && nc -h 2>&1 | grep -qi unix; then
+        absolute() {
+            case "$1" in
+                /*) printf '%s' "$1";;
+                *) printf '%s/%s' "$PWD" "$1";;
+            esac
+        }
+        printf '%s\t%s\n' "$(absolute "$1")" "$(absolute "$2")" | nc -U "$COMPILER_SOCKET" | {
+            # first line: exit code, then the diagnostics
+            read -r exit_code || { echo "Compile server closed the connection without a response" >&2; exit 1; }
+            cat >&2
+            exit "$exit_code"
+        }
+        exit $?
+    fi
+    exec $BIN_DIR/compiler --client "$COMPILER_SOCKET" "$@"
+fi
+$BIN_DIR/compiler "$@"
@@ -0,0 +1,11 @@
+int main() {
+  int bits = 0;
+  for (int i = 0; i < 10000000; i += 1) {
+    int v = i;
+    v = v - ((v >> 1) & 0x55555555);
+    v = (v & 0x33333333) + ((v >> 2) & 0x33333333);
+    v = (v + (v >> 4)) & 0x0F0F0F0F;
+    bits += (v * 0x01010101) >> 24;
+  }
+  return bits % 256;
+}
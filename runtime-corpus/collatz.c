@@ -0,0 +1,21 @@
+int main() {
+  int longest = 0;
+  int best = 0;
+  for (int start = 1; start < 100000; start += 1) {
+    int n = start;
+    int steps = 0;
+    while (n != 1) {
+      if (n % 2 == 0) {
+        n = n / 2;
+      } else {
+        n = 3 * n + 1;
+      }
+      steps += 1;
+    }
+    if (steps > longest) {
+      longest = steps;
+      best = start;
+    }
+  }
+  return best % 256;
+}
@@ -0,0 +1,9 @@
+int main() {
+  int n = 987654321;
+  int a = n / 3; int b = n % 7; int c = a / 11 + b;
+  int d = c % 13 + a / 17; int e = d / 19 - c % 23;
+  int f = (a + b) / (c % 29 + 1) + (d - e) % 31;
+  int g = n / (b + 1) + a % (c + 1) + d / (e % 5 + 7);
+  int h = g / 37 + f % 41 + e / 43 + d % 47 + c / 53;
+  return (a + b + c + d + e + f + g + h) % 256;
+}
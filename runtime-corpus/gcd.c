@@ -0,0 +1,16 @@
+int main() {
+  int total = 0;
+  for (int a = 1; a < 3000; a += 1) {
+    for (int b = 1; b < 1000; b += 1) {
+      int x = a;
+      int y = b;
+      while (y != 0) {
+        int t = x % y;
+        x = y;
+        y = t;
+      }
+      total += x;
+    }
+  }
+  return total % 256;
+}
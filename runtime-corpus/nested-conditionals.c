@@ -0,0 +1,19 @@
+int main() {
+  int score = 0;
+  for (int i = 0; i < 20000000; i += 1) {
+    int r = (i * 1103515245 + 12345) & 0x7fffffff;
+    bool even = r % 2 == 0;
+    if (even) {
+      if (r % 3 == 0) {
+        score += r > 1000000000 ? 3 : 1;
+      } else if (r % 5 == 0) {
+        score -= 2;
+      } else {
+        score ^= r & 15;
+      }
+    } else {
+      score += !(r % 7 == 0) && r % 11 != 0 ? 1 : -1;
+    }
+  }
+  return score & 255;
+}
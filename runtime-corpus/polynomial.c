@@ -0,0 +1,9 @@
+int main() {
+  int x = 7;
+  int a = 3; int b = -5; int c = 11; int d = 2; int e = -9; int f = 4;
+  int p = ((((a * x + b) * x + c) * x + d) * x + e) * x + f;
+  int q = ((((f * x + e) * x + d) * x + c) * x + b) * x + a;
+  int r = (p + q) * (p - q) + p * q;
+  int s = ((((r * x + a) * x + b) * x + c) * x + d) * x + e;
+  return (s + r + q + p) % 256;
+}
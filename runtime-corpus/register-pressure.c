@@ -0,0 +1,9 @@
+int main() {
+  int a = 1; int b = 2; int c = 3; int d = 4; int e = 5; int f = 6; int g = 7; int h = 8;
+  int i = 9; int j = 10; int k = 11; int l = 12; int m = 13; int n = 14; int o = 15; int p = 16;
+  int q = a * b + c * d - e; int r = f * g + h * i - j; int s = k * l + m * n - o;
+  int t = p * q + r * s - a; int u = b * t + c * s - d; int v = e * u + f * t - g;
+  int w = h * v + i * u - j; int x = k * w + l * v - m; int y = n * x + o * w - p;
+  int z = q + r + s + t + u + v + w + x + y;
+  return (a + b + c + d + e + f + g + h + i + j + k + l + m + n + o + p + z) % 256;
+}
@@ -0,0 +1,7 @@
+int main() {
+  int sum = 0;
+  for (int i = 0; i < 100000000; i += 1) {
+    sum += (i * i) ^ (i << 3);
+  }
+  return sum & 255;
+}
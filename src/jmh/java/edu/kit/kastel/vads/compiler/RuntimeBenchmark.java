@@ -0,0 +1,243 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import edu.kit.kastel.vads.compiler.backend.emit.ElfWriter;
+import edu.kit.kastel.vads.compiler.lexer.Keyword;
+import edu.kit.kastel.vads.compiler.lexer.KeywordType;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.Operator;
+import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+
+// Measures how fast the executables produced by the compiler run, compared to gcc -O0 and -O2
+// on the same source. Every program of the corpus is compiled by Main and by gcc (with -fwrapv,
+// as integer overflow wraps in our language, and stdbool.h for bool), then each executable is run
+// several times. Reported per executable are
+//   - the exit code, which has to match the one of gcc -O0,
+//   - the code size (our code including the entry stub, for gcc the size of main),
+//   - instructions and cycles spent in user mode (by perf stat, if available) and
+//   - the median wall time of the runs, which includes starting the process.
+// Programs using constructs the compiler cannot translate yet (anything beyond L1) are reported as unsupported
+// if compiling them fails. Any other failure of the compiler and wrong exit codes are reported as failed,
+// which makes the benchmark exit with status 1.
+//   --corpus dir   directory of the programs (.c), default runtime-corpus
+//   --runs n       executions of every executable, default 10
+//   --output dir   directory for the executables and runtime.csv, default build/runtime
+public final class RuntimeBenchmark {
+
+    private static final long TIMEOUT_SECONDS = 60;
+    // what the compiler translates end to end: int variables, arithmetic, assignments and return
+    private static final Set<KeywordType> SUPPORTED_KEYWORDS = EnumSet.of(KeywordType.INT, KeywordType.RETURN);
+    private static final Set<OperatorType> SUPPORTED_OPERATORS = EnumSet.of(OperatorType.PLUS, OperatorType.MINUS,
+        OperatorType.MUL, OperatorType.DIV, OperatorType.MOD, OperatorType.ASSIGN, OperatorType.ASSIGN_PLUS,
+        OperatorType.ASSIGN_MINUS, OperatorType.ASSIGN_MUL, OperatorType.ASSIGN_DIV, OperatorType.ASSIGN_MOD);
+
+    private record Result(String program, String compiler, String status, int exitCode, long codeBytes,
+            long instructions, long cycles, double wallMillis) {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        Path corpus = Path.of(options.getOrDefault("corpus", "runtime-corpus"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "10"));
+        Path output = Path.of(options.getOrDefault("output", "build/runtime"));
+        Files.createDirectories(output);
+        boolean perf = perfAvailable();
+        if (!perf) {
+            System.out.println("perf is not available, only wall time is measured");
+        }
+
+        List<Path> programs;
+        try (Stream<Path> files = Files.list(corpus)) {
+            programs = files.filter(f -> f.toString().endsWith(".c")).sorted().toList();
+        }
+        List<Result> results = new ArrayList<>();
+        int failures = 0;
+        System.out.printf("%-24s %-8s %6s %10s %14s %14s %10s  %s%n",
+            "program", "compiler", "exit", "code (B)", "instructions", "cycles", "wall (ms)", "status");
+        for (Path program : programs) {
+            String name = program.getFileName().toString().replaceFirst("\\.c$", "");
+            Integer expected = null;
+            for (String compiler : List.of("gcc-O0", "gcc-O2", "ours")) {
+                Path executable = output.resolve(name + "." + compiler);
+                String failure = compiler.equals("ours") ? compile(program, executable) : gcc(program, executable, compiler);
+                Result result;
+                if (failure != null) {
+                    result = new Result(name, compiler, failure, -1, -1, -1, -1, -1);
+                } else {
+                    result = run(name, compiler, executable, runs, perf);
+                    if (expected == null) {
+                        expected = result.exitCode();
+                    } else if (result.exitCode() != expected) {
+                        result = new Result(name, compiler, "failed: wrong exit code, expected " + expected,
+                            result.exitCode(), result.codeBytes(), result.instructions(), result.cycles(),
+                            result.wallMillis());
+                    }
+                }
+                if (result.status().startsWith("failed")) failures++;
+                results.add(result);
+                System.out.printf("%-24s %-8s %6s %10s %14s %14s %10s  %s%n", name, compiler,
+                    orDash(result.exitCode()), orDash(result.codeBytes()), orDash(result.instructions()),
+                    orDash(result.cycles()), result.wallMillis() < 0 ? "-" : String.format("%.2f", result.wallMillis()),
+                    result.status());
+            }
+        }
+        write(results, output.resolve("runtime.csv"));
+        if (failures > 0) {
+            System.out.println(failures + " failed");
+            System.exit(1);
+        }
+    }
+
+    // Compiles with our compiler and returns why it failed, or null if it succeeded.
+    // Programs beyond L1 may fail anywhere in the compiler, which is expected until it supports them.
+    private static String compile(Path program, Path executable) throws IOException {
+        String failure;
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(diagnostics, true, StandardCharsets.UTF_8)) {
+            int exitCode = Main.compile(Main.Job.besideOutput(program, executable), out,
+                new PassTimer(program.toString(), false));
+            if (exitCode == 0) return null;
+            failure = "rejected (exit code " + exitCode + "): " + firstLine(diagnostics.toString(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException | StackOverflowError e) {
+            failure = e.toString();
+        }
+        String unsupported = unsupportedConstruct(program);
+        return unsupported != null ? "unsupported: uses " + unsupported + " (" + failure + ")" : "failed: " + failure;
+    }
+
+    // The first keyword or operator of the program the compiler does not translate yet, or null if there is none.
+    private static String unsupportedConstruct(Path program) throws IOException {
+        Lexer lexer = Lexer.forFile(program);
+        Optional<Token> token;
+        while ((token = lexer.nextToken()).isPresent()) {
+            String construct = switch (token.get()) {
+                case Keyword keyword when !SUPPORTED_KEYWORDS.contains(keyword.type()) -> keyword.asString();
+                case Operator operator when !SUPPORTED_OPERATORS.contains(operator.type()) -> operator.asString();
+                default -> null;
+            };
+            if (construct != null) return construct;
+        }
+        return null;
+    }
+
+    private static String gcc(Path program, Path executable, String compiler) throws IOException, InterruptedException {
+        String level = compiler.substring("gcc".length());
+        Process gcc = new ProcessBuilder("gcc", level, "-fwrapv", "-include", "stdbool.h", "-o", executable.toString(),
+                program.toString())
+            .redirectErrorStream(true)
+            .start();
+        String messages = new String(gcc.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        return gcc.waitFor() == 0 ? null : "failed: gcc: " + firstLine(messages);
+    }
+
+    private static Result run(String name, String compiler, Path executable, int runs, boolean perf)
+            throws IOException, InterruptedException {
+        double[] millis = new double[runs];
+        int exitCode = -1;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(executable.toAbsolutePath().toString()).start();
+            exitCode = waitFor(process);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(millis);
+        long[] counters = perf ? perfStat(executable, runs) : new long[] {-1, -1};
+        return new Result(name, compiler, "ok", exitCode, codeSize(executable, compiler), counters[0], counters[1],
+            millis[runs / 2]);
+    }
+
+    // average instructions and cycles in user mode over the runs, -1 where not supported (e.g. in a VM)
+    private static long[] perfStat(Path executable, int runs) throws IOException, InterruptedException {
+        Process perf = new ProcessBuilder("perf", "stat", "-x", ",", "-e", "instructions:u,cycles:u",
+                "-r", String.valueOf(runs), "--", executable.toAbsolutePath().toString())
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .start();
+        String report = new String(perf.getErrorStream().readAllBytes(), StandardCharsets.UTF_8);
+        waitFor(perf);
+        long[] counters = {-1, -1};
+        // CSV lines: value,unit,event,...
+        for (String line : report.lines().toList()) {
+            String[] fields = line.split(",");
+            if (fields.length < 3) continue;
+            int index = fields[2].startsWith("instructions") ? 0 : fields[2].startsWith("cycles") ? 1 : -1;
+            if (index >= 0 && fields[0].matches("\\d+")) {
+                counters[index] = Long.parseLong(fields[0]);
+            }
+        }
+        return counters;
+    }
+
+    private static long codeSize(Path executable, String compiler) throws IOException, InterruptedException {
+        if (compiler.equals("ours")) {
+            return Files.size(executable) - ElfWriter.HEADERS_SIZE;
+        }
+        // nm -S prints "address size type name" for symbols with a size
+        Process nm = new ProcessBuilder("nm", "-S", "--defined-only", executable.toString()).start();
+        String symbols = new String(nm.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        waitFor(nm);
+        for (String line : symbols.lines().toList()) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length == 4 && fields[3].equals("main")) {
+                return Long.parseLong(fields[1], 16);
+            }
+        }
+        return -1;
+    }
+
+    private static boolean perfAvailable() {
+        try {
+            Process perf = new ProcessBuilder("perf", "--version").redirectErrorStream(true).start();
+            perf.getInputStream().readAllBytes();
+            return waitFor(perf) == 0;
+        } catch (IOException | InterruptedException e) {
+            return false;
+        }
+    }
+
+    private static int waitFor(Process process) throws InterruptedException, IOException {
+        if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("timed out after " + TIMEOUT_SECONDS + " s: " + process.info().command().orElse("?"));
+        }
+        return process.exitValue();
+    }
+
+    private static void write(List<Result> results, Path file) throws IOException {
+        List<String> csv = new ArrayList<>();
+        csv.add("program,compiler,exit_code,code_bytes,instructions,cycles,wall_ms,status");
+        for (Result r : results) {
+            csv.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.3f,\"%s\"", r.program(), r.compiler(), r.exitCode(),
+                r.codeBytes(), r.instructions(), r.cycles(), r.wallMillis(), r.status().replace("\"", "'")));
+        }
+        Files.write(file, csv);
+        System.out.println("results written to " + file);
+    }
+
+    private static String orDash(long value) {
+        return value < 0 ? "-" : String.valueOf(value);
+    }
+
+    private static String firstLine(String text) {
+        return text.lines().findFirst().orElse("").strip();
+    }
+}
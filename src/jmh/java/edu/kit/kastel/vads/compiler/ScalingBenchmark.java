@@ -0,0 +1,193 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import edu.kit.kastel.vads.compiler.benchmark.ProgramGenerator;
+
+// Measures how wall time and allocated memory of each pass grow with the size of the program,
+// to detect super-linear behavior. Programs of increasing size are generated (see ProgramGenerator)
+// and compiled several times, for each pass the fastest run is reported.
+//   --profile l1|l2     grammar of the programs, default l1 (the l2 constructs are not supported
+//                       beyond the parser yet, so only the passes before the failing one are reported)
+//   --sizes n,n,...     statement counts, default 1000,2000,4000,8000
+//   --depth n           nesting depth, default 4
+//   --variables n       long living variables, default 16
+//   --seed n            default 42
+//   --repetitions n     compilations per size, default 5
+//   --warmup n          compilations of the smallest program before measuring, default 10
+//   --output dir        directory for the programs and the results, default build/scaling
+// The results are written to scaling.csv together with a gnuplot script (scaling.gp) plotting them.
+// Finally the growth exponent of each pass between the smallest and the largest size is printed,
+// i.e. about 1 for linear and 2 for quadratic behavior.
+public final class ScalingBenchmark {
+
+    private static final double SUPER_LINEAR = 1.3;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = options(args);
+        ProgramGenerator.Profile profile = ProgramGenerator.Profile.valueOf(options.getOrDefault("profile", "l1").toUpperCase());
+        int[] sizes = Arrays.stream(options.getOrDefault("sizes", "1000,2000,4000,8000").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+        int depth = Integer.parseInt(options.getOrDefault("depth", "4"));
+        int variables = Integer.parseInt(options.getOrDefault("variables", "16"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int repetitions = Integer.parseInt(options.getOrDefault("repetitions", "5"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        Path output = Path.of(options.getOrDefault("output", "build/scaling"));
+        Files.createDirectories(output);
+
+        // per size the time and allocated bytes of each pass, 0 if it did not run
+        Map<Integer, long[][]> results = new LinkedHashMap<>();
+        List<Main.Job> jobs = new ArrayList<>();
+        for (int size : sizes) {
+            Path input = output.resolve(size + ".c");
+            Files.writeString(input, ProgramGenerator.generate(seed, new ProgramGenerator.Options(
+                profile, size, depth, variables, ProgramGenerator.OperatorMix.DEFAULT)));
+            jobs.add(Main.Job.besideOutput(input, output.resolve(String.valueOf(size))));
+        }
+        // otherwise the smallest program would mostly be compiled by the interpreter
+        for (int i = 0; i < warmup; i++) {
+            compile(jobs.getFirst(), new PassTimer("warmup", false));
+        }
+        for (int s = 0; s < sizes.length; s++) {
+            int size = sizes[s];
+            long[][] best = null;
+            String failure = null;
+            for (int i = 0; i < repetitions; i++) {
+                PassTimer timer = new PassTimer(jobs.get(s).input().toString(), true);
+                failure = compile(jobs.get(s), timer);
+                long[][] measured = measured(timer, failure != null);
+                best = best == null ? measured : faster(best, measured);
+            }
+            results.put(size, best);
+            System.out.printf("%8d statements: %s%s%n", size, total(best),
+                failure == null ? "" : " (compilation failed: " + failure + ")");
+            if (failure != null && (failure.contains("OutOfMemoryError") || failure.contains("StackOverflowError"))) {
+                break; // larger programs will not get any further
+            }
+        }
+        write(results, output);
+        printExponents(results);
+    }
+
+    // Compiles the job and returns why it failed, or null if it succeeded.
+    private static String compile(Main.Job job, PassTimer timer) {
+        try {
+            int exitCode = Main.compile(job, DISCARD, timer);
+            return exitCode == 0 ? null : "exit code " + exitCode;
+        } catch (IOException | RuntimeException | StackOverflowError | OutOfMemoryError e) {
+            return e.toString();
+        }
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) throw new IllegalArgumentException("Expected an option: " + args[i]);
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static long[][] measured(PassTimer timer, boolean failed) {
+        PassTimer.Pass[] passes = PassTimer.Pass.values();
+        long[][] measured = new long[passes.length][];
+        int last = -1;
+        for (PassTimer.Pass pass : passes) {
+            measured[pass.ordinal()] = new long[] {timer.nanos(pass), timer.allocatedBytes(pass)};
+            if (timer.nanos(pass) > 0) last = pass.ordinal();
+        }
+        if (failed && last >= 0) {
+            measured[last] = new long[2]; // the failing pass did not complete
+        }
+        return measured;
+    }
+
+    // per pass the run with the lower time
+    private static long[][] faster(long[][] a, long[][] b) {
+        long[][] result = new long[a.length][];
+        for (int i = 0; i < a.length; i++) {
+            boolean takeB = a[i][0] == 0 || (b[i][0] != 0 && b[i][0] < a[i][0]);
+            result[i] = takeB ? b[i] : a[i];
+        }
+        return result;
+    }
+
+    private static String total(long[][] measured) {
+        long nanos = 0, bytes = 0;
+        for (long[] pass : measured) {
+            nanos += pass[0];
+            bytes += pass[1];
+        }
+        return String.format("%10.3f ms %12.1f KiB", nanos / 1e6, bytes / 1024.0);
+    }
+
+    private static void write(Map<Integer, long[][]> results, Path output) throws IOException {
+        List<String> csv = new ArrayList<>();
+        csv.add("statements,pass,time_ms,allocated_kib");
+        results.forEach((size, measured) -> {
+            for (PassTimer.Pass pass : PassTimer.Pass.values()) {
+                long[] m = measured[pass.ordinal()];
+                if (m[0] == 0) continue;
+                csv.add(String.format(Locale.ROOT, "%d,%s,%.3f,%.1f", size, name(pass), m[0] / 1e6, m[1] / 1024.0));
+            }
+        });
+        Files.write(output.resolve("scaling.csv"), csv);
+
+        List<String> passes = Arrays.stream(PassTimer.Pass.values()).map(ScalingBenchmark::name).toList();
+        Files.writeString(output.resolve("scaling.gp"), """
+            # gnuplot scaling.gp writes scaling.png, a log-log plot of time and memory of each pass
+            set terminal pngcairo size 1400,600 noenhanced
+            set output 'scaling.png'
+            set datafile separator ','
+            set logscale xy
+            set key left top
+            set xlabel 'statements'
+            passes = '%s'
+            set multiplot layout 1,2
+            set ylabel 'time (ms)'
+            plot for [pass in passes] 'scaling.csv' using (strcol(2) eq pass ? $1 : NaN):3 with linespoints title pass
+            set ylabel 'allocated (KiB)'
+            plot for [pass in passes] 'scaling.csv' using (strcol(2) eq pass ? $1 : NaN):4 with linespoints title pass
+            unset multiplot
+            """.formatted(String.join(" ", passes)));
+        System.out.println("results written to " + output.resolve("scaling.csv")
+            + ", plot them with: (cd " + output + " && gnuplot scaling.gp)");
+    }
+
+    // Prints the exponent k of time ~ size^k between the smallest and the largest size of each pass.
+    private static void printExponents(Map<Integer, long[][]> results) {
+        List<Integer> sizes = new ArrayList<>(results.keySet());
+        if (sizes.size() < 2) return;
+        int small = sizes.getFirst(), large = sizes.getLast();
+        System.out.printf("growth between %d and %d statements (time, allocated):%n", small, large);
+        for (PassTimer.Pass pass : PassTimer.Pass.values()) {
+            long[] a = results.get(small)[pass.ordinal()], b = results.get(large)[pass.ordinal()];
+            if (a[0] == 0 || b[0] == 0) continue;
+            double time = exponent(a[0], b[0], small, large);
+            double memory = exponent(Math.max(1, a[1]), Math.max(1, b[1]), small, large);
+            System.out.printf("  %-22s n^%.2f  n^%.2f%s%n", pass.label, time, memory,
+                Math.max(time, memory) > SUPER_LINEAR ? "  super-linear" : "");
+        }
+    }
+
+    private static double exponent(long a, long b, int sizeA, int sizeB) {
+        return Math.log((double) b / a) / Math.log((double) sizeB / sizeA);
+    }
+
+    private static String name(PassTimer.Pass pass) {
+        return pass.name().toLowerCase();
+    }
+}
@@ -0,0 +1,110 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+
+// Measures the throughput of Lexer.nextToken, reported both as lexed programs ("lex")
+// and as tokens per second ("tokens"). lexFile lexes the same program from a memory mapped file,
+// as the compiler does, including mapping it.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int statements;
+
+    @Param({"1", "16"})
+    public int depth;
+
+    @Param({"4", "32"})
+    public int liveVariables;
+
+    // the lexer handles the full grammar, unlike the later phases
+    @Param({"L1", "L2"})
+    public ProgramGenerator.Profile profile;
+
+    private String source;
+    private Path file;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Tokens {
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.tokens = 0;
+        }
+    }
+
+    @Setup
+    public void prepare() throws IOException {
+        this.source = ProgramGenerator.generate(42, new ProgramGenerator.Options(this.profile, this.statements,
+            this.depth, this.liveVariables, ProgramGenerator.OperatorMix.DEFAULT));
+        this.file = Files.createTempFile("lexer-benchmark", ".c");
+        Files.writeString(this.file, this.source);
+    }
+
+    @TearDown
+    public void deleteFile() throws IOException {
+        Files.delete(this.file);
+    }
+
+    @Benchmark
+    public void lex(Tokens counter, Blackhole blackhole) {
+        Lexer lexer = Lexer.forString(this.source);
+        Optional<Token> token;
+        while ((token = lexer.nextToken()).isPresent()) {
+            blackhole.consume(token.get());
+            counter.tokens++;
+        }
+    }
+
+    @Benchmark
+    public void lexFile(Tokens counter, Blackhole blackhole) throws IOException {
+        Lexer lexer = Lexer.forFile(this.file);
+        Optional<Token> token;
+        while ((token = lexer.nextToken()).isPresent()) {
+            blackhole.consume(token.get());
+            counter.tokens++;
+        }
+    }
+
+    static List<Token> lex(String source) {
+        Lexer lexer = Lexer.forString(source);
+        List<Token> tokens = new ArrayList<>();
+        Optional<Token> token;
+        while ((token = lexer.nextToken()).isPresent()) {
+            tokens.add(token.get());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,142 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.kit.kastel.vads.compiler.CompilationContext;
+import edu.kit.kastel.vads.compiler.PassTimer;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.InstructionSelector;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+import edu.kit.kastel.vads.compiler.backend.liveness.InterferenceGraph;
+import edu.kit.kastel.vads.compiler.backend.liveness.Liveness;
+import edu.kit.kastel.vads.compiler.backend.liveness.LivenessAnalyzer;
+import edu.kit.kastel.vads.compiler.backend.regalloc.Coalescer;
+import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
+import edu.kit.kastel.vads.compiler.backend.regalloc.SpillCosts;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
+import edu.kit.kastel.vads.compiler.lexer.Token;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
+
+// Benchmarks each phase of the compiler on its own, the input of a phase is prepared once by running
+// the previous phases on a generated program (see ProgramGenerator).
+// Lexer throughput is measured separately by LexerBenchmark, the semantic passes by SemanticAnalysisBenchmark.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m") // instruction selection recurses along the side effect chain
+@State(Scope.Benchmark)
+public class PhaseBenchmarks {
+
+    @Param({"100", "1000", "10000"})
+    public int statements;
+
+    @Param({"1", "16"})
+    public int depth;
+
+    @Param({"4", "32"})
+    public int liveVariables;
+
+    private List<Token> tokens;
+    private ProgramTree program;
+    private List<IrGraph> graphs;
+    // instruction selection output, liveness and allocation run on it
+    private InstructionSelector selector;
+    private Instruction[] instructions;
+    private InterferenceGraph interferenceGraph;
+    private double[] spillCosts;
+
+    @Setup
+    public void prepare() {
+        String source = ProgramGenerator.generate(42, this.statements, this.depth, this.liveVariables);
+        this.tokens = LexerBenchmark.lex(source);
+        this.program = parse();
+        new SemanticAnalysis(this.program).analyze();
+        this.graphs = this.program.topLevelTrees().stream().map(PhaseBenchmarks::translate).toList();
+
+        this.selector = newSelector();
+        List<Instruction> selected = this.selector.performIS(this.graphs);
+        this.instructions = selected.toArray(Instruction[]::new);
+        int temps = this.selector.ALL_TREGS.size();
+        Liveness liveness = LivenessAnalyzer.performLA(this.instructions, temps);
+        this.spillCosts = SpillCosts.estimate(this.instructions, temps);
+        TargetRegisters registers = TargetRegisters.X86_64;
+        this.interferenceGraph = Coalescer.coalesce(
+            LivenessAnalyzer.generateInterferenceGraph(liveness, this.selector.ALL_TREGS, registers),
+            selected, registers.available().size());
+    }
+
+    // The allocation assigns registers to the temps, which must be undone before allocating again.
+    // This is a separate state, so the other benchmarks are not affected by the per invocation setup.
+    @State(Scope.Benchmark)
+    public static class Allocation {
+        @Setup(Level.Invocation)
+        public void resetRegisters(PhaseBenchmarks phases) {
+            for (TempReg temp : phases.selector.ALL_TREGS) {
+                temp.setRegister(null);
+            }
+        }
+    }
+
+    @Benchmark
+    public ProgramTree parse() {
+        return new Parser(new TokenSource(this.tokens)).parseProgram();
+    }
+
+    @Benchmark
+    public void semanticAnalysis() {
+        new SemanticAnalysis(this.program).analyze();
+    }
+
+    @Benchmark
+    public List<IrGraph> ssaTranslation() {
+        return this.program.topLevelTrees().stream().map(PhaseBenchmarks::translate).toList();
+    }
+
+    @Benchmark
+    public List<Instruction> instructionSelection() {
+        return newSelector().performIS(this.graphs);
+    }
+
+    // like the liveness pass of the compiler, including the interference graph derived from the live variables
+    @Benchmark
+    public InterferenceGraph livenessAnalysis() {
+        Liveness liveness = LivenessAnalyzer.performLA(this.instructions, this.selector.ALL_TREGS.size());
+        return LivenessAnalyzer.generateInterferenceGraph(liveness, this.selector.ALL_TREGS, TargetRegisters.X86_64);
+    }
+
+    @Benchmark
+    public int registerAllocation(Allocation allocation) {
+        return RegisterAllocator.performRegisterAllocation(this.interferenceGraph, this.spillCosts, 0,
+            TargetRegisters.X86_64);
+    }
+
+    private static IrGraph translate(FunctionTree function) {
+        return new SsaTranslation(function, new LocalValueNumbering()).translate();
+    }
+
+    private static InstructionSelector newSelector() {
+        return new InstructionSelector(new CompilationContext(TargetRegisters.X86_64, new PassTimer("benchmark", false)));
+    }
+}
@@ -0,0 +1,358 @@
+package edu.kit.kastel.vads.compiler.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+// Generates random, semantically valid programs for benchmarks and scaling tests.
+// The same seed and options always produce the same program.
+//   statements: number of statements in main (roughly, compound statements count once
+//               plus their contents)
+//   depth:      nesting depth of blocks, the statements are spread over all levels
+//   variables:  int variables declared first and live until the final return, i.e. the
+//               register pressure throughout the program (plus some bool variables for L2)
+//   operators:  relative weights of the kinds of expressions
+// The L1 profile only uses what the whole compiler supports (int declarations, assignments,
+// arithmetic and nested blocks). The L2 profile uses the full grammar accepted by the parser:
+// bool, if/else, while, for, break/continue, ternaries and all operators except <<= and >>=,
+// which the parser does not support yet.
+// Loops terminate and divisions and shifts only use constants in range, so the programs can be executed.
+public final class ProgramGenerator {
+
+    public enum Profile { L1, L2 }
+
+    // Relative weights of the kinds of (non-atomic) expressions. L1 only uses arithmetic and division.
+    public record OperatorMix(int arithmetic, int division, int bitwise, int shift, int comparison, int logical,
+            int conditional) {
+        public static final OperatorMix DEFAULT = new OperatorMix(6, 2, 2, 1, 3, 2, 1);
+    }
+
+    public record Options(Profile profile, int statements, int depth, int variables, OperatorMix operators) {
+
+        public Options {
+            if (depth < 1) throw new IllegalArgumentException("depth must be at least 1");
+        }
+
+        public static Options l1(int statements, int depth, int variables) {
+            return new Options(Profile.L1, statements, depth, variables, OperatorMix.DEFAULT);
+        }
+
+        public static Options l2(int statements, int depth, int variables) {
+            return new Options(Profile.L2, statements, depth, variables, OperatorMix.DEFAULT);
+        }
+    }
+
+    private record Variable(String name, boolean bool, boolean assignable) {}
+
+    private static final int EXPRESSION_DEPTH = 2;
+
+    private final Random random;
+    private final Options options;
+    private final boolean l2;
+    private final StringBuilder out = new StringBuilder();
+    // variables visible in the current block, the long living ones come first
+    private final List<Variable> visible = new ArrayList<>();
+    private int names = 0;
+    private int loops = 0; // enclosing loops, break and continue are only generated inside of loops
+
+    private ProgramGenerator(long seed, Options options) {
+        this.random = new Random(seed);
+        this.options = options;
+        this.l2 = options.profile() == Profile.L2;
+    }
+
+    public static String generate(long seed, Options options) {
+        return new ProgramGenerator(seed, options).program();
+    }
+
+    // L1 program, see Options.l1
+    public static String generate(long seed, int statements, int depth, int variables) {
+        return generate(seed, Options.l1(statements, depth, variables));
+    }
+
+    private String program() {
+        this.out.append("int main() {\n");
+        int bools = this.l2 ? (this.options.variables() + 3) / 4 : 0;
+        for (int i = 0; i < this.options.variables(); i++) {
+            declare(1, new Variable("v" + i, false, true), () -> this.out.append(this.random.nextInt(1000)));
+        }
+        for (int i = 0; i < bools; i++) {
+            declare(1, new Variable("c" + i, true, true), () -> this.out.append(this.random.nextBoolean()));
+        }
+        block(1, Math.max(0, this.options.statements() - this.options.variables() - bools));
+        this.out.append("  return ");
+        appendResult(bools);
+        this.out.append(";\n}\n");
+        return this.out.toString();
+    }
+
+    // Emits the statements of one nesting level, the statement holding the deeper levels (if any)
+    // is placed in the middle.
+    private void block(int level, int statements) {
+        int perLevel = statements / (this.options.depth() - level + 1);
+        int before = perLevel / 2;
+        int visibleBefore = this.visible.size();
+        for (int i = 0; i < before; i++) {
+            statement(level);
+        }
+        if (level < this.options.depth()) {
+            nested(level, statements - perLevel);
+        }
+        for (int i = before; i < perLevel; i++) {
+            statement(level);
+        }
+        // locals of a block are not visible after it
+        this.visible.subList(visibleBefore, this.visible.size()).clear();
+    }
+
+    // A compound statement holding the deeper levels.
+    private void nested(int level, int statements) {
+        int kind = this.l2 ? this.random.nextInt(4) : 0;
+        switch (kind) {
+            case 0 -> {
+                line(level, "{");
+                block(level + 1, statements);
+                line(level, "}");
+            }
+            case 1 -> {
+                indent(level);
+                this.out.append("if (");
+                boolExpression(EXPRESSION_DEPTH);
+                this.out.append(") {\n");
+                block(level + 1, statements - 1);
+                line(level, "} else {");
+                nestedStatement(level + 1);
+                line(level, "}");
+            }
+            case 2 -> {
+                // the counter is incremented first, so continue cannot skip it
+                Variable counter = new Variable("w" + this.names++, false, false);
+                declare(level, counter, () -> this.out.append('0'));
+                line(level, "while (" + counter.name() + " < " + (1 + this.random.nextInt(3)) + ") {");
+                line(level + 1, counter.name() + " += 1;");
+                this.loops++;
+                block(level + 1, statements - 2);
+                this.loops--;
+                line(level, "}");
+            }
+            default -> {
+                Variable counter = new Variable("i" + this.names++, false, false);
+                line(level, "for (int " + counter.name() + " = 0; " + counter.name() + " < "
+                    + (1 + this.random.nextInt(3)) + "; " + counter.name() + " += 1) {");
+                this.visible.add(counter);
+                this.loops++;
+                block(level + 1, statements - 1);
+                this.loops--;
+                this.visible.remove(counter);
+                line(level, "}");
+            }
+        }
+    }
+
+    private void statement(int level) {
+        int choice = this.random.nextInt(this.l2 ? 10 : 4);
+        Variable target;
+        if (choice == 9 && this.loops > 0) {
+            indent(level);
+            this.out.append("if (");
+            boolExpression(1);
+            this.out.append(") { ").append(this.random.nextBoolean() ? "break" : "continue").append("; }\n");
+        } else if (choice >= 7) {
+            // a short conditional, i.e. without nested levels
+            indent(level);
+            this.out.append("if (");
+            boolExpression(1);
+            this.out.append(") {\n");
+            nestedStatement(level + 1);
+            line(level, "}");
+        } else if (choice == 0 || (target = variable(Variable::assignable)) == null) {
+            boolean bool = this.l2 && this.random.nextInt(4) == 0;
+            Variable variable = new Variable((bool ? "b" : "t") + this.names++, bool, true);
+            declare(level, variable, () -> expression(bool, EXPRESSION_DEPTH));
+        } else {
+            assignment(level, target);
+        }
+    }
+
+    // a single statement forming the body of an if or else
+    private void nestedStatement(int level) {
+        int visibleBefore = this.visible.size();
+        statement(level);
+        this.visible.subList(visibleBefore, this.visible.size()).clear();
+    }
+
+    private void declare(int level, Variable variable, Runnable initializer) {
+        indent(level);
+        this.out.append(variable.bool() ? "bool " : "int ").append(variable.name()).append(" = ");
+        initializer.run(); // the variable itself is not visible in its initializer
+        this.out.append(";\n");
+        this.visible.add(variable);
+    }
+
+    private void assignment(int level, Variable target) {
+        indent(level);
+        this.out.append(target.name());
+        if (target.bool()) {
+            this.out.append(" = ");
+            boolExpression(EXPRESSION_DEPTH);
+        } else {
+            String[] operators = this.l2
+                ? new String[] {" = ", " += ", " -= ", " *= ", " &= ", " |= ", " ^= ", " /= ", " %= "}
+                : new String[] {" = ", " += ", " -= ", " *= ", " /= ", " %= "};
+            String operator = operators[this.random.nextInt(operators.length)];
+            this.out.append(operator);
+            if (operator.equals(" /= ") || operator.equals(" %= ")) {
+                this.out.append(1 + this.random.nextInt(9));
+            } else {
+                intExpression(EXPRESSION_DEPTH);
+            }
+        }
+        this.out.append(";\n");
+    }
+
+    private void expression(boolean bool, int depth) {
+        if (bool) boolExpression(depth);
+        else intExpression(depth);
+    }
+
+    private void intExpression(int depth) {
+        OperatorMix mix = this.options.operators();
+        int kind = depth == 0 || this.random.nextInt(3) == 0 ? -1 : this.l2
+            ? pick(mix.arithmetic(), mix.division(), mix.bitwise(), mix.shift(), mix.conditional())
+            : pick(mix.arithmetic(), mix.division());
+        switch (kind) {
+            case 0 -> binary(false, depth, " + ", " - ", " * ");
+            case 1 -> {
+                // divide by non-zero constants only
+                this.out.append('(');
+                intExpression(depth - 1);
+                this.out.append(this.random.nextBoolean() ? " / " : " % ").append(1 + this.random.nextInt(9)).append(')');
+            }
+            case 2 -> {
+                if (this.random.nextInt(4) == 0) {
+                    this.out.append("~(");
+                    intExpression(depth - 1);
+                    this.out.append(')');
+                } else {
+                    binary(false, depth, " & ", " | ", " ^ ");
+                }
+            }
+            case 3 -> {
+                this.out.append('(');
+                intExpression(depth - 1);
+                this.out.append(this.random.nextBoolean() ? " << " : " >> ").append(this.random.nextInt(32)).append(')');
+            }
+            case 4 -> conditional(false, depth);
+            default -> intOperand();
+        }
+    }
+
+    private void boolExpression(int depth) {
+        OperatorMix mix = this.options.operators();
+        int kind = depth == 0 || this.random.nextInt(3) == 0 ? -1
+            : pick(mix.comparison(), mix.logical(), mix.conditional());
+        switch (kind) {
+            case 0 -> {
+                if (this.random.nextInt(4) == 0) {
+                    binary(true, depth, " == ", " != "); // comparison of bools
+                } else {
+                    binary(false, depth, " < ", " <= ", " > ", " >= ", " == ", " != ");
+                }
+            }
+            case 1 -> {
+                if (this.random.nextInt(4) == 0) {
+                    this.out.append("!(");
+                    boolExpression(depth - 1);
+                    this.out.append(')');
+                } else {
+                    binary(true, depth, " && ", " || ");
+                }
+            }
+            case 2 -> conditional(true, depth);
+            default -> boolOperand(depth);
+        }
+    }
+
+    // "(a op b)" with operands of the given type
+    private void binary(boolean bool, int depth, String... operators) {
+        this.out.append('(');
+        expression(bool, depth - 1);
+        this.out.append(operators[this.random.nextInt(operators.length)]);
+        expression(bool, depth - 1);
+        this.out.append(')');
+    }
+
+    private void conditional(boolean bool, int depth) {
+        this.out.append('(');
+        boolExpression(depth - 1);
+        this.out.append(" ? ");
+        expression(bool, depth - 1);
+        this.out.append(" : ");
+        expression(bool, depth - 1);
+        this.out.append(')');
+    }
+
+    private void intOperand() {
+        Variable variable = this.random.nextInt(4) == 0 ? null : variable(v -> !v.bool());
+        if (variable == null) {
+            this.out.append(this.random.nextInt(100));
+        } else if (this.random.nextInt(8) == 0) {
+            this.out.append("-").append(variable.name());
+        } else {
+            this.out.append(variable.name());
+        }
+    }
+
+    private void boolOperand(int depth) {
+        Variable variable = this.random.nextInt(3) == 0 ? null : variable(Variable::bool);
+        if (variable != null) {
+            this.out.append(variable.name());
+        } else if (depth > 0 && this.random.nextBoolean()) {
+            binary(false, 1, " < ", " <= ", " > ", " >= ", " == ", " != ");
+        } else {
+            this.out.append(this.random.nextBoolean());
+        }
+    }
+
+    // a random visible variable matching the filter, or null if there is none
+    private Variable variable(Predicate<Variable> filter) {
+        for (int attempt = 0; attempt < 8 && !this.visible.isEmpty(); attempt++) {
+            Variable variable = this.visible.get(this.random.nextInt(this.visible.size()));
+            if (filter.test(variable)) return variable;
+        }
+        return this.visible.stream().filter(filter).findFirst().orElse(null);
+    }
+
+    // index of a random weight, proportional to the weights, or -1 if all of them are 0
+    private int pick(int... weights) {
+        int total = 0;
+        for (int weight : weights) total += weight;
+        if (total == 0) return -1;
+        int r = this.random.nextInt(total);
+        for (int i = 0; ; i++) {
+            r -= weights[i];
+            if (r < 0) return i;
+        }
+    }
+
+    private void appendResult(int bools) {
+        if (this.options.variables() == 0 && bools == 0) {
+            this.out.append('0');
+            return;
+        }
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < this.options.variables(); i++) terms.add("v" + i);
+        for (int i = 0; i < bools; i++) terms.add("(c" + i + " ? 1 : 0)");
+        this.out.append(String.join(" + ", terms));
+    }
+
+    private void line(int level, String line) {
+        indent(level);
+        this.out.append(line).append('\n');
+    }
+
+    private void indent(int level) {
+        this.out.append("  ".repeat(level));
+    }
+}
@@ -0,0 +1,77 @@
+package edu.kit.kastel.vads.compiler.semantic;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.kit.kastel.vads.compiler.benchmark.ProgramGenerator;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+
+// Benchmarks the single passes of the semantic analysis (in this package to access them).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SemanticAnalysisBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int statements;
+
+    @Param({"1", "16"})
+    public int depth;
+
+    @Param({"4", "32"})
+    public int liveVariables;
+
+    private SemanticAnalysis analysis;
+
+    @Setup
+    public void prepare() {
+        String source = ProgramGenerator.generate(42, this.statements, this.depth, this.liveVariables);
+        this.analysis = new SemanticAnalysis(new Parser(new TokenSource(Lexer.forString(source))).parseProgram());
+    }
+
+    @Benchmark
+    public void integerRanges() {
+        this.analysis.checkIntegerRanges();
+    }
+
+    @Benchmark
+    public void returns() {
+        this.analysis.checkReturns();
+    }
+
+    @Benchmark
+    public void forLoopSteps() {
+        this.analysis.checkForLoopSteps();
+    }
+
+    @Benchmark
+    public void breakContinue() {
+        this.analysis.checkBreakContinue();
+    }
+
+    @Benchmark
+    public void variableStatus() {
+        this.analysis.checkVariableStatus();
+    }
+
+    @Benchmark
+    public void types() {
+        this.analysis.checkTypes();
+    }
+}
@@ -0,0 +1,86 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+// Compiles many programs within one JVM. The programs are given either as a directory
+// (all .c and .l2 files in it) or as a manifest file listing one job per line:
+//   <input> [<output>]
+// Inputs are resolved against the directory of the manifest, outputs against the output directory.
+// Without an output, the executable is named like the input without its extension.
+// Empty lines and lines starting with # are ignored.
+class Batch {
+
+    // Compiles all jobs in parallel and prints the exit code of each of them (tab separated,
+    // followed by the input file) in the order of the jobs. Returns 0 if all jobs succeeded and 1 otherwise.
+    static int run(Path source, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        List<Main.Job> jobs = jobs(source, outputDirectory);
+        boolean failed = false;
+        // each task creates its own selector and allocator state (see Main.compile)
+        try (ForkJoinPool pool = new ForkJoinPool()) {
+            List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+            for (Main.Job job : jobs) {
+                tasks.add(pool.submit(() -> compile(job)));
+            }
+            for (int i = 0; i < jobs.size(); i++) {
+                int exitCode = tasks.get(i).join();
+                System.out.println(exitCode + "\t" + jobs.get(i).input());
+                failed |= exitCode != 0;
+            }
+        }
+        return failed ? 1 : 0;
+    }
+
+    // Compiles a job, reporting unexpected failures by exit code 1 instead of an exception.
+    // This includes stack overflows, e.g. in the recursion of the instruction selection on large programs;
+    // other errors (e.g. OutOfMemoryError) leave the JVM in a state where the batch is better aborted.
+    static int compile(Main.Job job) {
+        return compile(job, System.err);
+    }
+
+    // Like compile(Job), but reports errors in the program and unexpected failures to diagnostics.
+    static int compile(Main.Job job, PrintStream diagnostics) {
+        try {
+            return Main.compileCached(job, diagnostics);
+        } catch (IOException | RuntimeException | StackOverflowError e) {
+            e.printStackTrace(diagnostics); // do not let one job abort the others
+            return 1;
+        }
+    }
+
+    private static List<Main.Job> jobs(Path source, Path outputDirectory) throws IOException {
+        List<Main.Job> jobs = new ArrayList<>();
+        if (Files.isDirectory(source)) {
+            try (Stream<Path> files = Files.list(source)) {
+                files.filter(f -> f.toString().endsWith(".c") || f.toString().endsWith(".l2"))
+                    .sorted()
+                    .forEach(f -> jobs.add(Main.Job.besideOutput(f, outputDirectory.resolve(stem(f)))));
+            }
+            return jobs;
+        }
+        Path base = source.toAbsolutePath().getParent();
+        for (String line : Files.readAllLines(source)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] parts = line.split("\\s+");
+            Path input = base.resolve(parts[0]);
+            Path output = outputDirectory.resolve(parts.length > 1 ? parts[1] : stem(input));
+            jobs.add(Main.Job.besideOutput(input, output));
+        }
+        return jobs;
+    }
+
+    private static String stem(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+}
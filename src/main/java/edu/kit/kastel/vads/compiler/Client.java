@@ -0,0 +1,41 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+// Sends a single compile request to a running Server, prints the diagnostics of the compilation
+// to stderr and returns its exit code.
+// Only loads the few classes needed for the socket, the compiler itself is not touched. Starting the
+// JVM still dominates a request, run.sh therefore uses nc instead where available.
+class Client {
+
+    static int run(Path socket, Path input, Path output) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+            // the server resolves relative paths against its own working directory
+            String request = input.toAbsolutePath() + "\t" + output.toAbsolutePath() + "\n";
+            ByteBuffer buffer = ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String response = in.readLine();
+            if (response == null) {
+                throw new IOException("Compile server closed the connection without a response");
+            }
+            Writer diagnostics = new OutputStreamWriter(System.err, StandardCharsets.UTF_8);
+            in.transferTo(diagnostics);
+            diagnostics.flush();
+            return Integer.parseInt(response.strip());
+        }
+    }
+}
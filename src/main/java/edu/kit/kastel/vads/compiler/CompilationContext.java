@@ -0,0 +1,36 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import edu.kit.kastel.vads.compiler.backend.instrsel.InstructionInfo;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
+import edu.kit.kastel.vads.compiler.ir.node.Node;
+
+// State belonging to a single compilation: the target register configuration, the side tables
+// of the backend and the measurements of the passes. Each compilation creates its own context,
+// so compilations share no mutable state and can run concurrently in one JVM.
+public final class CompilationContext {
+
+    private final TargetRegisters registers;
+    private final PassTimer timer;
+    // result of the instruction selection for each IR node
+    private final Map<Node, InstructionInfo> instructionInfos = new IdentityHashMap<>();
+
+    public CompilationContext(TargetRegisters registers, PassTimer timer) {
+        this.registers = registers;
+        this.timer = timer;
+    }
+
+    public TargetRegisters registers() {
+        return this.registers;
+    }
+
+    public PassTimer timer() {
+        return this.timer;
+    }
+
+    public InstructionInfo instructionInfo(Node node) {
+        return this.instructionInfos.computeIfAbsent(node, _ -> new InstructionInfo());
+    }
+}
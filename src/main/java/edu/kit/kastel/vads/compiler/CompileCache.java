@@ -0,0 +1,242 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+// On-disk cache of compilation results, enabled by setting COMPILE_CACHE (or -DcompileCache) to a directory.
+// Entries are keyed by a hash of the source, the compiler build and the options affecting the output.
+// Each entry is a directory holding the exit code, the diagnostics and the produced files; its modification
+// time is refreshed on every hit. When the cache exceeds COMPILE_CACHE_SIZE (or -DcompileCacheSize) MiB,
+// default 256, the least recently used entries are removed.
+final class CompileCache {
+
+    private static final long DEFAULT_SIZE_MIB = 256;
+    private static final String STATUS = "status", DIAGNOSTICS = "diagnostics", EXECUTABLE = "executable",
+        ASSEMBLY = "assembly";
+
+    private final Path directory;
+    private final long maxBytes;
+
+    private CompileCache(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    // Returns the configured cache, or null if caching is disabled (or the compiler build cannot be identified).
+    // Throws an IllegalArgumentException if the size limit is not a number.
+    static CompileCache fromEnvironment() {
+        String directory = option("COMPILE_CACHE", "compileCache");
+        if (directory == null || CompilerVersion.HASH == null) return null;
+        String size = option("COMPILE_CACHE_SIZE", "compileCacheSize");
+        long sizeMib;
+        try {
+            sizeMib = size == null ? DEFAULT_SIZE_MIB : Long.parseLong(size.strip());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected COMPILE_CACHE_SIZE to be a number of MiB, got " + size, e);
+        }
+        if (sizeMib < 0) {
+            throw new IllegalArgumentException("Expected COMPILE_CACHE_SIZE to be a number of MiB, got " + size);
+        }
+        return new CompileCache(Path.of(directory), sizeMib * 1024 * 1024);
+    }
+
+    private static String option(String environmentVariable, String property) {
+        String value = System.getProperty(property);
+        return value != null ? value : System.getenv(environmentVariable);
+    }
+
+    // Compiles the job or restores its results from the cache, the (cached) diagnostics are written to diagnostics.
+    int compile(Main.Job job, PrintStream diagnostics) throws IOException {
+        Path entry = this.directory.resolve(key(Files.readAllBytes(job.input())));
+        Integer cached = restore(entry, job, diagnostics);
+        if (cached != null) return cached;
+
+        ByteArrayOutputStream stored = new ByteArrayOutputStream();
+        int exitCode;
+        try (PrintStream tee = new PrintStream(new TeeOutputStream(stored, diagnostics), true)) {
+            exitCode = Main.compile(job, tee);
+        }
+        store(entry, job, exitCode, stored.toByteArray());
+        return exitCode;
+    }
+
+    // Restores the cached files and returns the cached exit code, or null if there is no (complete) entry.
+    private static Integer restore(Path entry, Main.Job job, PrintStream diagnostics) {
+        try {
+            int exitCode = Integer.parseInt(Files.readString(entry.resolve(STATUS)).strip());
+            if (exitCode == 0) {
+                Files.copy(entry.resolve(EXECUTABLE), job.output(), StandardCopyOption.REPLACE_EXISTING);
+                job.output().toFile().setExecutable(true);
+                if (Files.exists(entry.resolve(ASSEMBLY))) {
+                    Files.copy(entry.resolve(ASSEMBLY), job.asmOutput(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            diagnostics.write(Files.readAllBytes(entry.resolve(DIAGNOSTICS)));
+            diagnostics.flush();
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis())); // recently used
+            return exitCode;
+        } catch (IOException | NumberFormatException e) {
+            return null; // missing, incomplete or evicted concurrently
+        }
+    }
+
+    // Writes the entry to a temporary directory first and moves it into place, so readers never see a partial entry.
+    private void store(Path entry, Main.Job job, int exitCode, byte[] diagnostics) throws IOException {
+        Files.createDirectories(this.directory);
+        Path temporary = Files.createTempDirectory(this.directory, "tmp-");
+        Files.writeString(temporary.resolve(STATUS), exitCode + "\n");
+        Files.write(temporary.resolve(DIAGNOSTICS), diagnostics);
+        if (exitCode == 0) {
+            Files.copy(job.output(), temporary.resolve(EXECUTABLE));
+            if (Main.usesGcc()) {
+                Files.copy(job.asmOutput(), temporary.resolve(ASSEMBLY));
+            }
+        }
+        try {
+            Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteEntry(temporary);
+            if (!Files.isDirectory(entry)) throw e; // otherwise stored concurrently by another compilation
+        }
+        evict();
+    }
+
+    // Removes the least recently used entries until the cache fits into its size limit.
+    private void evict() throws IOException {
+        record Entry(Path path, long bytes, FileTime lastUsed) {}
+        List<Entry> entries = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> paths = Files.list(this.directory)) {
+            for (Path path : paths.toList()) {
+                if (path.getFileName().toString().startsWith("tmp-")) continue; // being written
+                try {
+                    Entry entry = new Entry(path, size(path), Files.getLastModifiedTime(path));
+                    entries.add(entry);
+                    total += entry.bytes();
+                } catch (IOException e) {
+                    // evicted concurrently
+                }
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::lastUsed));
+        for (int i = 0; i < entries.size() && total > this.maxBytes; i++) {
+            deleteEntry(entries.get(i).path());
+            total -= entries.get(i).bytes();
+        }
+    }
+
+    private static long size(Path entry) throws IOException {
+        try (Stream<Path> files = Files.list(entry)) {
+            long bytes = 0;
+            for (Path file : files.toList()) {
+                bytes += Files.readAttributes(file, BasicFileAttributes.class).size();
+            }
+            return bytes;
+        }
+    }
+
+    private static void deleteEntry(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            // already deleted concurrently, or retried by the next eviction
+        }
+    }
+
+    // The key covers everything the output depends on: the source, the compiler build and the assembler option.
+    private static String key(byte[] source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(CompilerVersion.HASH);
+            digest.update((byte) (Main.usesGcc() ? 1 : 0));
+            digest.update(source);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is supported by every JVM", e);
+        }
+    }
+
+    // Identifies the compiler build by the content of its jar, or of the class files if it runs from a directory.
+    // The hash is computed once per JVM when the cache is first used, it is null if the code cannot be read.
+    private static final class CompilerVersion {
+        static final byte[] HASH = hash();
+
+        private static byte[] hash() {
+            try {
+                CodeSource source = Main.class.getProtectionDomain().getCodeSource();
+                if (source == null) return null; // the cache is disabled
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                Path code = Path.of(source.getLocation().toURI());
+                if (Files.isRegularFile(code)) {
+                    digest.update(Files.readAllBytes(code));
+                    return digest.digest();
+                }
+                try (Stream<Path> files = Files.walk(code)) {
+                    for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                        digest.update(code.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                        digest.update((byte) 0);
+                        digest.update(Files.readAllBytes(file));
+                    }
+                }
+                return digest.digest();
+            } catch (IOException | URISyntaxException | SecurityException e) {
+                return null; // the cache is disabled
+            } catch (NoSuchAlgorithmException e) {
+                throw new AssertionError("SHA-256 is supported by every JVM", e);
+            }
+        }
+    }
+
+    // Writes to both streams, e.g. to show diagnostics while recording them for the cache.
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream first, second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.first.write(b);
+            this.second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.first.write(b, off, len);
+            this.second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.first.flush();
+            this.second.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush(); // the diagnostics stream stays open
+        }
+    }
+}
@@ -1,16 +1,20 @@
 package edu.kit.kastel.vads.compiler;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
 
+import edu.kit.kastel.vads.compiler.backend.emit.AsmWriter;
+import edu.kit.kastel.vads.compiler.backend.emit.ElfWriter;
+import edu.kit.kastel.vads.compiler.backend.emit.X86Encoder;
 import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
 import edu.kit.kastel.vads.compiler.backend.instrsel.InstructionSelector;
-import edu.kit.kastel.vads.compiler.backend.liveness.InterferenceGraph;
 import edu.kit.kastel.vads.compiler.backend.liveness.LivenessAnalyzer;
 import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
 import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
 import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
@@ -20,88 +24,211 @@ import edu.kit.kastel.vads.compiler.lexer.Lexer;
 import edu.kit.kastel.vads.compiler.parser.ParseException;
 import edu.kit.kastel.vads.compiler.parser.Parser;
 import edu.kit.kastel.vads.compiler.parser.TokenSource;
-import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
 import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.visitor.TreeCounter;
 import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
 import edu.kit.kastel.vads.compiler.semantic.SemanticException;
 
 public class Main {
-    @SuppressWarnings("CallToPrintStackTrace")
+
+    // Input file and the files written when compiling it.
+    record Job(Path input, Path output, Path asmOutput, Path debugOutput, Path graphOutput) {
+
+        // the files written next to the executable are named after it
+        static Job besideOutput(Path input, Path output) {
+            return new Job(input, output,
+                Path.of(output + ".s"), Path.of(output + ".debug"), Path.of(output + ".dot"));
+        }
+    }
+
     public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("--batch")) {
+            System.exit(Batch.run(Path.of(args[1]), Path.of(args[2])));
+        }
+        if (args.length == 2 && args[0].equals("--server")) {
+            Server.run(Path.of(args[1]));
+            return;
+        }
+        if (args.length == 4 && args[0].equals("--client")) {
+            System.exit(Client.run(Path.of(args[1]), Path.of(args[2]), Path.of(args[3])));
+        }
         if (args.length != 2) {
-            System.err.println("Invalid arguments: Expected one input file and one output file");
+            System.err.println("Invalid arguments: Expected one input file and one output file"
+                + " or --batch followed by a directory or manifest and an output directory");
             System.exit(3);
         }
-        Path input = Path.of(args[0]);
-        Path output = Path.of(args[1]);
-        Path debugOutput = Path.of("debugfoo");
-        Path asmOutput = Path.of("asmfoo.s");
-        Path graphOutput = Path.of("debuggraph");
-        ProgramTree program = lexAndParse(input);
+        Job job = new Job(Path.of(args[0]), Path.of(args[1]),
+            Path.of("asmfoo.s"), Path.of("debugfoo"), Path.of("debuggraph"));
+        int exitCode = compile(job);
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    // Compiles a single program and returns the exit code of the compiler for it,
+    // i.e. 0 on success, 42 for syntax errors and 7 for semantic errors.
+    // If a compile cache is configured (see CompileCache), a cached result is used where possible.
+    static int compile(Job job) throws IOException {
+        return compileCached(job, System.err);
+    }
+
+    // Like compile(Job), but reports errors in the program (and the pass timings) to diagnostics.
+    static int compileCached(Job job, PrintStream diagnostics) throws IOException {
+        CompileCache cache;
+        try {
+            cache = CompileCache.fromEnvironment();
+        } catch (IllegalArgumentException e) {
+            diagnostics.println("Invalid arguments: " + e.getMessage());
+            return 3;
+        }
+        if (cache != null && !dumpsRequested() && !PassTimer.requested()) {
+            return cache.compile(job, diagnostics);
+        }
+        return compile(job, diagnostics);
+    }
+
+    // Compiles a single program without the cache, errors in the program are reported to diagnostics.
+    // The pass timings (see PassTimer) are reported to diagnostics as well.
+    static int compile(Job job, PrintStream diagnostics) throws IOException {
+        PassTimer timer = PassTimer.fromEnvironment(job.input().toString());
+        try {
+            return compile(job, diagnostics, timer);
+        } finally {
+            timer.report(diagnostics);
+        }
+    }
+
+    // also used to measure the passes on their own, e.g. by the scaling benchmark
+    static int compile(Job job, PrintStream diagnostics, PassTimer timer) throws IOException {
+        Path output = job.output();
+        ProgramTree program;
         try {
+            program = lexAndParse(job.input(), timer);
+        } catch (ParseException e) {
+            e.printStackTrace(diagnostics);
+            return 42;
+        }
+        try (var _ = timer.start(PassTimer.Pass.SEMANTIC)) {
             new SemanticAnalysis(program).analyze();
         } catch (SemanticException e) {
-            e.printStackTrace();
-            System.exit(7);
-            return;
+            e.printStackTrace(diagnostics);
+            return 7;
         }
-        List<IrGraph> graphs = new ArrayList<>();
-        for (FunctionTree function : program.topLevelTrees()) {
-            SsaTranslation translation = new SsaTranslation(function, new LocalValueNumbering());
-            graphs.add(translation.translate());
+        List<IrGraph> graphs;
+        try (var _ = timer.start(PassTimer.Pass.SSA)) {
+            // functions are translated independently (within the pool of the batch, if any)
+            graphs = program.topLevelTrees().parallelStream()
+                .map(function -> new SsaTranslation(function, new LocalValueNumbering()).translate())
+                .toList();
+            if (timer.isEnabled()) {
+                timer.count(PassTimer.Pass.SSA, "ir nodes", graphs.stream().mapToInt(IrGraph::nodeCount).sum());
+            }
         }
 
         for (IrGraph graph : graphs) {
-            Files.writeString(graphOutput, GraphVizPrinter.print(graph));
+            Files.writeString(job.graphOutput(), GraphVizPrinter.print(graph));
         }
 
         if ("vcg".equals(System.getenv("DUMP_GRAPHS")) || "vcg".equals(System.getProperty("dumpGraphs"))) {
             Path tmp = output.toAbsolutePath().resolveSibling("graphs");
-            Files.createDirectory(tmp);
+            Files.createDirectories(tmp);
             for (IrGraph graph : graphs) {
                 dumpGraph(graph, tmp, "before-codegen");
             }
         }
 
         // generate assembly
-        InstructionSelector is = new InstructionSelector();
-        List<Instruction> instructions = is.performIS(graphs);
-        LivenessAnalyzer.performLA(instructions.toArray(Instruction[]::new));
-        InterferenceGraph interferenceGraph = LivenessAnalyzer.generateInterferenceGraph(instructions, is.ALL_TREGS);
-        int spilledRegs = RegisterAllocator.performRegisterAllocation(interferenceGraph);
+        CompilationContext context = new CompilationContext(TargetRegisters.X86_64, timer);
+        InstructionSelector is = new InstructionSelector(context);
+        List<Instruction> instructions;
+        try (var _ = timer.start(PassTimer.Pass.INSTRUCTION_SELECTION)) {
+            instructions = is.performIS(graphs);
+            timer.count(PassTimer.Pass.INSTRUCTION_SELECTION, "instructions", instructions.size());
+            timer.count(PassTimer.Pass.INSTRUCTION_SELECTION, "temps", is.ALL_TREGS.size());
+        }
+        // times liveness analysis and register allocation separately
+        int spilledRegs = RegisterAllocator.allocate(instructions, is, context);
         is.addFunctionPrologue(instructions, spilledRegs);
         is.addFunctionEpilogue(instructions, spilledRegs);
 
-        StringBuilder sbDebug = new StringBuilder(), sb = new StringBuilder();
-        sb.append(InstructionSelector.getGlobalPrologue());
-
-        for(Instruction i : instructions) {
-            sbDebug.append(i.print(true)).append("\n"); // debug output
-            sb.append(i.print(false)).append("\n"); // real output
+        try (var _ = timer.start(PassTimer.Pass.EMIT)) {
+            emit(job, instructions, context);
+        }
+        if ("debug".equals(System.getenv("DUMP_ASM")) || "debug".equals(System.getProperty("dumpAsm"))) {
+            // the live temps shown per instruction are not kept by the register allocation
+            LivenessAnalyzer.performLA(instructions.toArray(Instruction[]::new), is.ALL_TREGS.size()).annotate();
+            try (AsmWriter out = new AsmWriter(job.debugOutput())) {
+                for(Instruction i : instructions) {
+                    i.emit(out, context.registers(), true); // debug output
+                }
+            }
         }
-
-        Files.writeString(debugOutput, sbDebug.toString());
-        Files.writeString(asmOutput, sb.toString());
-
-        // invoke scc
-        Runtime.getRuntime().exec("gcc asmfoo.s -o " + output);
 
         // template (abstract assembly) output
         //String s = new CodeGenerator().generateCode(graphs);
         //Files.writeString(output, s);
+        return 0;
     }
 
-    @SuppressWarnings("CallToPrintStackTrace")
-    private static ProgramTree lexAndParse(Path input) throws IOException {
-        try {
-            Lexer lexer = Lexer.forString(Files.readString(input));
-            TokenSource tokenSource = new TokenSource(lexer);
+    // Writes the executable, either through gcc or by encoding the instructions ourselves.
+    private static void emit(Job job, List<Instruction> instructions, CompilationContext context) throws IOException {
+        Path output = job.output();
+        if (usesGcc()) {
+            try (AsmWriter out = new AsmWriter(job.asmOutput())) {
+                out.append(InstructionSelector.getGlobalPrologue());
+                for(Instruction i : instructions) {
+                    i.emit(out, context.registers(), false); // real output
+                }
+            }
+            // invoke gcc
+            Process gcc = new ProcessBuilder("gcc", job.asmOutput().toString(), "-o", output.toString())
+                .inheritIO()
+                .start();
+            try {
+                if (gcc.waitFor() != 0) {
+                    throw new IOException("gcc failed with exit code " + gcc.exitValue());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for gcc");
+            }
+        } else {
+            // encode the instructions directly and write the executable ourselves
+            X86Encoder encoder = new X86Encoder(context.registers());
+            encoder.encodeEntryStub();
+            for(Instruction i : instructions) {
+                encoder.encode(i);
+            }
+            byte[] code = encoder.toByteArray();
+            context.timer().count(PassTimer.Pass.EMIT, "code bytes", code.length);
+            ElfWriter.write(output, code);
+        }
+    }
+
+    static boolean usesGcc() {
+        return "gcc".equals(System.getenv("ASSEMBLER")) || "gcc".equals(System.getProperty("assembler"));
+    }
+
+    // whether debug output is requested, which is never taken from the cache
+    private static boolean dumpsRequested() {
+        return "vcg".equals(System.getenv("DUMP_GRAPHS")) || "vcg".equals(System.getProperty("dumpGraphs"))
+            || "debug".equals(System.getenv("DUMP_ASM")) || "debug".equals(System.getProperty("dumpAsm"));
+    }
+
+    private static ProgramTree lexAndParse(Path input, PassTimer timer) throws IOException {
+        TokenSource tokenSource;
+        try (var _ = timer.start(PassTimer.Pass.LEX)) {
+            Lexer lexer = Lexer.forFile(input);
+            tokenSource = new TokenSource(lexer); // lexes the whole input
+            timer.count(PassTimer.Pass.LEX, "tokens", tokenSource.size());
+        }
+        try (var _ = timer.start(PassTimer.Pass.PARSE)) {
             Parser parser = new Parser(tokenSource);
-            return parser.parseProgram();
-        } catch (ParseException e) {
-            e.printStackTrace();
-            System.exit(42);
-            throw new AssertionError("unreachable");
+            ProgramTree program = parser.parseProgram();
+            if (timer.isEnabled()) {
+                timer.count(PassTimer.Pass.PARSE, "ast nodes", TreeCounter.count(program));
+            }
+            return program;
         }
     }
 
@@ -0,0 +1,153 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+// Measures the passes of a single compilation. With TIME_PASSES=true (or -DtimePasses=true), wall time,
+// bytes allocated by the compiling thread and some counters of each pass are collected and printed
+// as a report after the compilation (like -Xtime-passes of other compilers).
+// Independently of that, every pass is recorded as JFR event edu.kit.kastel.vads.compiler.Pass,
+// which costs next to nothing unless a flight recording with this event enabled is running.
+public final class PassTimer {
+
+    public enum Pass {
+        LEX("lex"), PARSE("parse"), SEMANTIC("semantic analysis"), SSA("ssa translation"),
+        INSTRUCTION_SELECTION("instruction selection"), LIVENESS("liveness analysis"),
+        REGISTER_ALLOCATION("register allocation"), EMIT("emit");
+
+        final String label;
+
+        Pass(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String input;
+    private final boolean enabled;
+    // accumulated over all runs of a pass (liveness and allocation run once per allocation round)
+    private final Map<Pass, long[]> nanosAndBytes = new EnumMap<>(Pass.class);
+    private final Map<Pass, Map<String, Long>> counters = new EnumMap<>(Pass.class);
+
+    public PassTimer(String input, boolean enabled) {
+        this.input = input;
+        this.enabled = enabled && THREADS.isThreadAllocatedMemorySupported();
+    }
+
+    static PassTimer fromEnvironment(String input) {
+        return new PassTimer(input, requested());
+    }
+
+    // whether the report is requested, in which case compilations are not taken from the cache
+    static boolean requested() {
+        return "true".equals(System.getenv("TIME_PASSES")) || "true".equals(System.getProperty("timePasses"));
+    }
+
+    // Starts measuring a pass, which ends when the returned measurement is closed.
+    // Allocations are attributed to the calling thread only, i.e. work done by other threads
+    // (e.g. the parallel SSA translation) shows up in the time but not in the allocated bytes.
+    public Measurement start(Pass pass) {
+        return new Measurement(pass);
+    }
+
+    // Adds to a counter of the pass, e.g. the number of tokens produced by the lexer.
+    public void count(Pass pass, String counter, long value) {
+        if (!this.enabled) return;
+        this.counters.computeIfAbsent(pass, _ -> new LinkedHashMap<>()).merge(counter, value, Long::sum);
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    // measured wall time of the pass in nanoseconds, 0 if it did not run (or measuring is disabled)
+    long nanos(Pass pass) {
+        return this.nanosAndBytes.getOrDefault(pass, new long[2])[0];
+    }
+
+    // bytes allocated by the compiling thread during the pass, see nanos
+    long allocatedBytes(Pass pass) {
+        return this.nanosAndBytes.getOrDefault(pass, new long[2])[1];
+    }
+
+    // Prints the collected measurements, if enabled.
+    void report(PrintStream out) {
+        if (!this.enabled) return;
+        out.println("pass timings for " + this.input + ":");
+        out.printf("  %-22s %10s %16s  %s%n", "pass", "time (ms)", "allocated (KiB)", "counters");
+        long totalNanos = 0, totalBytes = 0;
+        for (Pass pass : Pass.values()) {
+            long[] measured = this.nanosAndBytes.get(pass);
+            if (measured == null) continue; // not reached, e.g. after a syntax error
+            totalNanos += measured[0];
+            totalBytes += measured[1];
+            List<String> counters = new ArrayList<>();
+            this.counters.getOrDefault(pass, Map.of()).forEach((name, value) -> counters.add(name + "=" + value));
+            out.println(String.format("  %-22s %10.3f %16.1f  %s", pass.label, measured[0] / 1e6, measured[1] / 1024.0,
+                String.join(", ", counters)).stripTrailing());
+        }
+        out.printf("  %-22s %10.3f %16.1f%n", "total", totalNanos / 1e6, totalBytes / 1024.0);
+    }
+
+    public final class Measurement implements AutoCloseable {
+        private final Pass pass;
+        private final PassEvent event = new PassEvent();
+        private final long startNanos, startBytes;
+
+        private Measurement(Pass pass) {
+            this.pass = pass;
+            this.event.begin();
+            this.startNanos = System.nanoTime();
+            this.startBytes = PassTimer.this.enabled || this.event.isEnabled() ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+        }
+
+        @Override
+        public void close() {
+            long nanos = System.nanoTime() - this.startNanos;
+            if (!PassTimer.this.enabled && !this.event.shouldCommit()) return;
+            long bytes = THREADS.getCurrentThreadAllocatedBytes() - this.startBytes;
+            if (PassTimer.this.enabled) {
+                long[] measured = PassTimer.this.nanosAndBytes.computeIfAbsent(this.pass, _ -> new long[2]);
+                measured[0] += nanos;
+                measured[1] += bytes;
+            }
+            if (this.event.shouldCommit()) {
+                this.event.pass = this.pass.label;
+                this.event.input = PassTimer.this.input;
+                this.event.allocated = bytes;
+                this.event.commit();
+            }
+        }
+    }
+
+    @Name("edu.kit.kastel.vads.compiler.Pass")
+    @Label("Compiler Pass")
+    @Category("Compiler")
+    @Description("A pass of the compilation of one input file")
+    static final class PassEvent extends Event {
+        @Label("Pass")
+        String pass;
+
+        @Label("Input")
+        String input;
+
+        @Label("Allocated")
+        @Description("Bytes allocated by the compiling thread during the pass")
+        @DataAmount
+        long allocated;
+    }
+}
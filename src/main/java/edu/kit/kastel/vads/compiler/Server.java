@@ -0,0 +1,80 @@
+package edu.kit.kastel.vads.compiler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Keeps the compiler resident and compiles programs on request, so starting the JVM and warming up
+// the JIT is paid only once. Requests are accepted on a Unix domain socket, one per connection:
+//   request:  <input file>\t<output file>\n   (absolute paths, see Client)
+//   response: <exit code>\n<diagnostics>      (the diagnostics up to the end of the connection)
+// The diagnostics are what the compiler would print to stderr, e.g. syntax errors and the pass timings.
+// The files written besides the executable are named after it (see Main.Job.besideOutput).
+class Server {
+
+    static void run(Path socket) throws IOException {
+        Files.deleteIfExists(socket); // left over by a previous server
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            socket.toFile().deleteOnExit();
+            System.err.println("Listening on " + socket);
+            while (true) {
+                SocketChannel client = server.accept();
+                executor.execute(() -> handle(client)); // failures reach the uncaught exception handler
+            }
+        }
+    }
+
+    @SuppressWarnings("CallToPrintStackTrace")
+    private static void handle(SocketChannel client) {
+        try (client) {
+            BufferedReader in = new BufferedReader(
+                new InputStreamReader(Channels.newInputStream(client), StandardCharsets.UTF_8));
+            String line = in.readLine();
+            String[] request = line == null ? new String[0] : line.split("\t");
+            ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+            int exitCode;
+            try (PrintStream out = new PrintStream(diagnostics, true, StandardCharsets.UTF_8)) {
+                exitCode = compile(request, out);
+            }
+            ByteBuffer response = ByteBuffer.wrap((exitCode + "\n" + diagnostics.toString(StandardCharsets.UTF_8))
+                .getBytes(StandardCharsets.UTF_8));
+            while (response.hasRemaining()) {
+                client.write(response);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Compiles the requested job and returns the exit code; the client gets an answer whatever happens.
+    @SuppressWarnings("CallToPrintStackTrace")
+    private static int compile(String[] request, PrintStream diagnostics) {
+        if (request.length != 2) {
+            diagnostics.println("Invalid request: Expected an input file and an output file separated by a tab");
+            return 3; // invalid arguments, like Main
+        }
+        try {
+            return Batch.compile(Main.Job.besideOutput(Path.of(request[0]), Path.of(request[1])), diagnostics);
+        } catch (Throwable e) {
+            // e.g. an OutOfMemoryError, which is also logged by the server
+            e.printStackTrace(diagnostics);
+            e.printStackTrace();
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package edu.kit.kastel.vads.compiler.backend.dataflow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A maximal sequence of instructions [start, end) that is always executed as a whole:
+// only the first instruction has predecessors outside of the block
+// and only the last instruction has successors outside of the block.
+public final class BasicBlock {
+
+    public final int id;
+    public final int start, end; // instruction indices, end is exclusive
+    private final List<BasicBlock> successors = new ArrayList<>(), predecessors = new ArrayList<>();
+
+    BasicBlock(int id, int start, int end) {
+        this.id = id;
+        this.start = start;
+        this.end = end;
+    }
+
+    void addSuccessor(BasicBlock block) {
+        this.successors.add(block);
+        block.predecessors.add(this);
+    }
+
+    public List<BasicBlock> getSuccessors() {
+        return this.successors;
+    }
+
+    public List<BasicBlock> getPredecessors() {
+        return this.predecessors;
+    }
+
+    public int size() {
+        return this.end - this.start;
+    }
+}
@@ -0,0 +1,136 @@
+package edu.kit.kastel.vads.compiler.backend.dataflow;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+
+// Dense bitset over a fixed universe of ids 0..size-1, e.g. temporary register ids
+// (TempReg.id is already numbered densely) for liveness analysis.
+// Bit i is set iff the element with id i is contained in the set.
+public final class BitVector {
+
+    private final int size;
+    private final long[] words;
+
+    public BitVector(int size) {
+        this.size = size;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    public BitVector(BitVector other) {
+        this.size = other.size;
+        this.words = other.words.clone();
+    }
+
+    public void add(int id) {
+        this.words[id >>> 6] |= 1L << id;
+    }
+
+    public void add(TempReg t) {
+        add(t.id);
+    }
+
+    public void remove(int id) {
+        this.words[id >>> 6] &= ~(1L << id);
+    }
+
+    public boolean contains(int id) {
+        return (this.words[id >>> 6] & (1L << id)) != 0;
+    }
+
+    public boolean contains(TempReg t) {
+        return contains(t.id);
+    }
+
+    public void clear() {
+        Arrays.fill(this.words, 0L);
+    }
+
+    // Adds all ids of the universe.
+    public void fill() {
+        Arrays.fill(this.words, -1L);
+        int rest = this.size & 63;
+        if (rest != 0) {
+            this.words[this.words.length - 1] = (1L << rest) - 1;
+        }
+    }
+
+    // this = other
+    public void assign(BitVector other) {
+        System.arraycopy(other.words, 0, this.words, 0, this.words.length);
+    }
+
+    // this |= other
+    public void addAll(BitVector other) {
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] |= other.words[i];
+        }
+    }
+
+    // this &= other
+    public void retainAll(BitVector other) {
+        for (int i = 0; i < this.words.length; i++) {
+            this.words[i] &= other.words[i];
+        }
+    }
+
+    // this = gen | (in & ~kill), returns true if the set changed.
+    // For liveness this is live = use | (out & ~def). It is safe to pass this as in.
+    public boolean assignTransfer(BitVector gen, BitVector in, BitVector kill) {
+        boolean changed = false;
+        for (int i = 0; i < this.words.length; i++) {
+            long w = gen.words[i] | (in.words[i] & ~kill.words[i]);
+            if (w != this.words[i]) {
+                this.words[i] = w;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // Size of the universe (not the amount of contained ids, see cardinality()).
+    public int size() {
+        return this.size;
+    }
+
+    public int cardinality() {
+        int size = 0;
+        for (long w : this.words) {
+            size += Long.bitCount(w);
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        for (long w : this.words) {
+            if (w != 0) return false;
+        }
+        return true;
+    }
+
+    // Calls the action for every contained id in ascending order.
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < this.words.length; i++) {
+            long w = this.words[i];
+            while (w != 0) {
+                action.accept((i << 6) + Long.numberOfTrailingZeros(w));
+                w &= w - 1;
+            }
+        }
+    }
+
+    // Writes all contained ids into the given buffer and returns their amount.
+    // The buffer must be large enough to hold cardinality() elements.
+    public int toArray(int[] buffer) {
+        int n = 0;
+        for (int i = 0; i < this.words.length; i++) {
+            long w = this.words[i];
+            while (w != 0) {
+                buffer[n++] = (i << 6) + Long.numberOfTrailingZeros(w);
+                w &= w - 1;
+            }
+        }
+        return n;
+    }
+}
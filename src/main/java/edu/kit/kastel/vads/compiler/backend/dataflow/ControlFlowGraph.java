@@ -0,0 +1,123 @@
+package edu.kit.kastel.vads.compiler.backend.dataflow;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+
+// Groups an instruction sequence into basic blocks, using the successor
+// relation set at the instructions (see Instruction.succ).
+public final class ControlFlowGraph {
+
+    private final Instruction[] instructions;
+    private final List<BasicBlock> blocks = new ArrayList<>();
+    private final BasicBlock[] blockOf; // block for each instruction index
+    private final BasicBlock[] reversePostorder;
+
+    public ControlFlowGraph(Instruction[] instructions) {
+        this.instructions = instructions;
+        int n = instructions.length;
+        this.blockOf = new BasicBlock[n];
+
+        Map<Instruction, Integer> index = new IdentityHashMap<>(n);
+        for (int i = 0; i < n; i++) {
+            index.put(instructions[i], i);
+        }
+
+        // an instruction starts a new block, if it is not solely reached by falling through
+        // from the previous instruction, or if the previous instruction branches
+        int[] predCount = new int[n];
+        boolean[] leader = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            List<Instruction> succ = (List<Instruction>) instructions[i].getSucc();
+            for (Instruction s : succ) {
+                int j = index.get(s);
+                predCount[j]++;
+                if (j != i + 1) leader[j] = true;
+            }
+            if (succ.size() != 1 && i + 1 < n) leader[i + 1] = true;
+        }
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || predCount[i] != 1) leader[i] = true;
+        }
+
+        int start = 0;
+        for (int i = 1; i <= n; i++) {
+            if (i == n || leader[i]) {
+                BasicBlock block = new BasicBlock(this.blocks.size(), start, i);
+                this.blocks.add(block);
+                for (int k = start; k < i; k++) {
+                    this.blockOf[k] = block;
+                }
+                start = i;
+            }
+        }
+        for (BasicBlock block : this.blocks) {
+            for (Instruction s : (List<Instruction>) instructions[block.end - 1].getSucc()) {
+                block.addSuccessor(this.blockOf[index.get(s)]);
+            }
+        }
+
+        this.reversePostorder = computeReversePostorder();
+    }
+
+    // Iterative depth first search starting at the entry block.
+    // Blocks that are unreachable from the entry are appended at the end.
+    private BasicBlock[] computeReversePostorder() {
+        int count = this.blocks.size();
+        BasicBlock[] order = new BasicBlock[count];
+        if (count == 0) return order;
+        boolean[] visited = new boolean[count];
+        int[] nextSucc = new int[count];
+        BasicBlock[] stack = new BasicBlock[count];
+        int pos = 0;
+
+        // postorder, written from the back
+        int top = 0;
+        stack[top++] = getEntry();
+        visited[getEntry().id] = true;
+        int reachable = 0;
+        while (top > 0) {
+            BasicBlock b = stack[top - 1];
+            if (nextSucc[b.id] < b.getSuccessors().size()) {
+                BasicBlock s = b.getSuccessors().get(nextSucc[b.id]++);
+                if (!visited[s.id]) {
+                    visited[s.id] = true;
+                    stack[top++] = s;
+                }
+            } else {
+                stack[--top] = null;
+                order[count - 1 - pos++] = b;
+                reachable++;
+            }
+        }
+        // the reachable blocks are stored in order[count - reachable, count), move them to the front
+        System.arraycopy(order, count - reachable, order, 0, reachable);
+        for (BasicBlock b : this.blocks) {
+            if (!visited[b.id]) order[pos++] = b;
+        }
+        return order;
+    }
+
+    public Instruction[] getInstructions() {
+        return this.instructions;
+    }
+
+    public List<BasicBlock> getBlocks() {
+        return this.blocks;
+    }
+
+    public BasicBlock getEntry() {
+        return this.blocks.getFirst();
+    }
+
+    public BasicBlock getBlock(int instruction) {
+        return this.blockOf[instruction];
+    }
+
+    public BasicBlock[] getReversePostorder() {
+        return this.reversePostorder;
+    }
+}
@@ -0,0 +1,35 @@
+package edu.kit.kastel.vads.compiler.backend.dataflow;
+
+// A gen/kill dataflow problem over bit vectors, e.g. liveness (backward, union),
+// reaching definitions (forward, union) or available expressions (forward, intersection).
+// The transfer function of an instruction is f(x) = gen | (x & ~kill).
+public interface DataflowProblem {
+
+    enum Direction {
+        FORWARD,
+        BACKWARD
+    }
+
+    enum Meet {
+        UNION,
+        INTERSECTION
+    }
+
+    Direction direction();
+
+    Meet meet();
+
+    // Amount of facts, i.e. the size of all bit vectors.
+    int universeSize();
+
+    // Adds the facts generated by the instruction with the given index.
+    void gen(int instruction, BitVector gen);
+
+    // Adds the facts killed by the instruction with the given index.
+    void kill(int instruction, BitVector kill);
+
+    // Sets the facts holding at the function entry (forward) or at the function exits (backward).
+    // Nothing holds there by default.
+    default void boundary(BitVector facts) {
+    }
+}
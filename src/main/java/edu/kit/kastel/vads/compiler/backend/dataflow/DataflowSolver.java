@@ -0,0 +1,139 @@
+package edu.kit.kastel.vads.compiler.backend.dataflow;
+
+import java.util.List;
+
+import edu.kit.kastel.vads.compiler.backend.dataflow.DataflowProblem.Direction;
+import edu.kit.kastel.vads.compiler.backend.dataflow.DataflowProblem.Meet;
+
+// Solves a dataflow problem on basic block granularity:
+// First the transfer functions of all instructions of a block are combined into a single
+// gen/kill summary, then a worklist iterates over the blocks until the fixpoint is reached.
+// Blocks are visited in reverse postorder (forward problems) or postorder (backward problems),
+// so that most blocks see their final inputs on the first visit.
+public final class DataflowSolver {
+
+    private DataflowSolver() {
+    }
+
+    public static Result solve(ControlFlowGraph cfg, DataflowProblem problem) {
+        List<BasicBlock> blocks = cfg.getBlocks();
+        int count = blocks.size();
+        int size = problem.universeSize();
+        boolean forward = problem.direction() == Direction.FORWARD;
+        boolean union = problem.meet() == Meet.UNION;
+
+        // block summaries
+        BitVector[] gen = new BitVector[count], kill = new BitVector[count];
+        BitVector insGen = new BitVector(size), insKill = new BitVector(size);
+        for (BasicBlock block : blocks) {
+            BitVector g = new BitVector(size), k = new BitVector(size);
+            for (int n = 0; n < block.size(); n++) {
+                int i = forward ? block.start + n : block.end - 1 - n;
+                insGen.clear();
+                insKill.clear();
+                problem.gen(i, insGen);
+                problem.kill(i, insKill);
+                // f_i(f_B(x)) = (gen_i | (gen_B & ~kill_i)) | (x & ~(kill_B | kill_i))
+                g.assignTransfer(insGen, g, insKill);
+                k.addAll(insKill);
+            }
+            gen[block.id] = g;
+            kill[block.id] = k;
+        }
+
+        // in: facts at block start, out: facts at block end
+        BitVector[] in = new BitVector[count], out = new BitVector[count];
+        BitVector boundary = new BitVector(size);
+        problem.boundary(boundary);
+        for (BasicBlock block : blocks) {
+            BitVector entry = new BitVector(size), exit = new BitVector(size);
+            // the meet input of a block is initialized with the neutral element of the meet
+            boolean isBoundary = forward ? block == cfg.getEntry() : block.getSuccessors().isEmpty();
+            BitVector input = forward ? entry : exit;
+            if (isBoundary) {
+                input.assign(boundary);
+            } else if (!union) {
+                input.fill();
+            }
+            if (!union) {
+                (forward ? exit : entry).fill();
+            }
+            in[block.id] = entry;
+            out[block.id] = exit;
+        }
+
+        BasicBlock[] rpo = cfg.getReversePostorder();
+        BasicBlock[] order = new BasicBlock[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = forward ? rpo[i] : rpo[count - 1 - i];
+        }
+
+        // FIFO worklist, initially containing all blocks in iteration order
+        BasicBlock[] queue = new BasicBlock[count];
+        boolean[] queued = new boolean[count];
+        int head = 0, queueSize = 0;
+        for (BasicBlock block : order) {
+            queue[queueSize++] = block;
+            queued[block.id] = true;
+        }
+        while (queueSize > 0) {
+            BasicBlock block = queue[head];
+            head = (head + 1) % count;
+            queueSize--;
+            queued[block.id] = false;
+
+            List<BasicBlock> inputs = forward ? block.getPredecessors() : block.getSuccessors();
+            BitVector input = forward ? in[block.id] : out[block.id];
+            BitVector output = forward ? out[block.id] : in[block.id];
+            if (!inputs.isEmpty()) {
+                boolean first = true;
+                for (BasicBlock b : inputs) {
+                    BitVector facts = forward ? out[b.id] : in[b.id];
+                    if (first) {
+                        input.assign(facts);
+                        first = false;
+                    } else if (union) {
+                        input.addAll(facts);
+                    } else {
+                        input.retainAll(facts);
+                    }
+                }
+            }
+            if (output.assignTransfer(gen[block.id], input, kill[block.id])) {
+                for (BasicBlock b : forward ? block.getSuccessors() : block.getPredecessors()) {
+                    if (!queued[b.id]) {
+                        queued[b.id] = true;
+                        queue[(head + queueSize) % count] = b;
+                        queueSize++;
+                    }
+                }
+            }
+        }
+
+        return new Result(cfg, in, out);
+    }
+
+    // The facts holding at the start and at the end of every block.
+    public static final class Result {
+        private final ControlFlowGraph cfg;
+        private final BitVector[] in, out;
+
+        private Result(ControlFlowGraph cfg, BitVector[] in, BitVector[] out) {
+            this.cfg = cfg;
+            this.in = in;
+            this.out = out;
+        }
+
+        public ControlFlowGraph getControlFlowGraph() {
+            return this.cfg;
+        }
+
+        public BitVector in(BasicBlock block) {
+            return this.in[block.id];
+        }
+
+        public BitVector out(BasicBlock block) {
+            return this.out[block.id];
+        }
+    }
+}
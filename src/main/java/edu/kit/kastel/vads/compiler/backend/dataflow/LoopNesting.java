@@ -0,0 +1,57 @@
+package edu.kit.kastel.vads.compiler.backend.dataflow;
+
+import java.util.List;
+
+// Computes the loop nesting depth of every basic block.
+// An edge b -> h is treated as back edge if h does not come after b in reverse postorder,
+// the loop of header h then consists of all blocks reaching b without passing h.
+// Multiple back edges to the same header form a single loop.
+public final class LoopNesting {
+
+    private final int[] depth;
+
+    public LoopNesting(ControlFlowGraph cfg) {
+        List<BasicBlock> blocks = cfg.getBlocks();
+        int count = blocks.size();
+        this.depth = new int[count];
+        BasicBlock[] rpo = cfg.getReversePostorder();
+        int[] position = new int[count];
+        for (int i = 0; i < count; i++) {
+            position[rpo[i].id] = i;
+        }
+
+        // inLoop[b] == header id + 1 marks b as part of the loop currently being collected
+        int[] inLoop = new int[count];
+        BasicBlock[] stack = new BasicBlock[count];
+        int top = 0;
+        for (BasicBlock header : blocks) {
+            int mark = header.id + 1;
+            boolean isHeader = false;
+            inLoop[header.id] = mark; // the walk stops at the header
+            for (BasicBlock pred : header.getPredecessors()) {
+                if (position[pred.id] < position[header.id]) continue; // no back edge
+                isHeader = true;
+                if (inLoop[pred.id] != mark) {
+                    inLoop[pred.id] = mark;
+                    stack[top++] = pred;
+                }
+            }
+            if (!isHeader) continue;
+            this.depth[header.id]++;
+            while (top > 0) {
+                BasicBlock b = stack[--top];
+                this.depth[b.id]++;
+                for (BasicBlock pred : b.getPredecessors()) {
+                    if (inLoop[pred.id] != mark) {
+                        inLoop[pred.id] = mark;
+                        stack[top++] = pred;
+                    }
+                }
+            }
+        }
+    }
+
+    public int depth(BasicBlock block) {
+        return this.depth[block.id];
+    }
+}
@@ -0,0 +1,91 @@
+package edu.kit.kastel.vads.compiler.backend.emit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes assembly text to a file through a fixed size buffer, so the output is never held in memory as a whole.
+// Assembly is plain ASCII, hence characters are written as single bytes without an encoder.
+public class AsmWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] digits = new byte[11]; // enough for Integer.MIN_VALUE
+    private int column = 0; // characters written since the last line break
+
+    public AsmWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+
+    public AsmWriter append(char c) {
+        if (!this.buffer.hasRemaining()) flush();
+        this.buffer.put((byte) c);
+        this.column = c == '\n' ? 0 : this.column + 1;
+        return this;
+    }
+
+    public AsmWriter append(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            append(s.charAt(i));
+        }
+        return this;
+    }
+
+    // Writes the decimal representation of the value without creating a string.
+    public AsmWriter append(int value) {
+        long v = value;
+        if (v < 0) {
+            append('-');
+            v = -v;
+        }
+        int length = 0;
+        do {
+            this.digits[length++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        while (length > 0) {
+            append((char) this.digits[--length]);
+        }
+        return this;
+    }
+
+    public AsmWriter newLine() {
+        return append('\n');
+    }
+
+    // Pads the current line with spaces up to the given column (at least one space is written).
+    public AsmWriter padTo(int column) {
+        do {
+            append(' ');
+        } while (this.column < column);
+        return this;
+    }
+
+    public void flush() {
+        this.buffer.flip();
+        try {
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package edu.kit.kastel.vads.compiler.backend.emit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Writes a minimal statically linked ELF64 executable for x86-64 Linux: the file header is followed by
+// a single program header mapping the whole file (readable and executable), the machine code starts
+// right after the headers and is entered at its first byte. No sections or symbols are emitted.
+public class ElfWriter {
+
+    private static final long BASE_ADDRESS = 0x400000;
+    private static final int ELF_HEADER_SIZE = 64, PROGRAM_HEADER_SIZE = 56;
+    // offset of the code in the file
+    public static final int HEADERS_SIZE = ELF_HEADER_SIZE + PROGRAM_HEADER_SIZE;
+
+    public static void write(Path path, byte[] code) throws IOException {
+        long fileSize = HEADERS_SIZE + code.length;
+        ByteBuffer headers = ByteBuffer.allocate(HEADERS_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        // file header
+        headers.put(new byte[] {0x7F, 'E', 'L', 'F'});
+        headers.put((byte) 2); // 64 bit
+        headers.put((byte) 1); // little endian
+        headers.put((byte) 1); // ELF version
+        headers.put((byte) 0); // System V ABI
+        headers.put(new byte[8]); // ABI version and padding
+        headers.putShort((short) 2); // executable file
+        headers.putShort((short) 0x3E); // x86-64
+        headers.putInt(1); // ELF version
+        headers.putLong(BASE_ADDRESS + HEADERS_SIZE); // entry point
+        headers.putLong(ELF_HEADER_SIZE); // program header offset
+        headers.putLong(0); // section header offset
+        headers.putInt(0); // flags
+        headers.putShort((short) ELF_HEADER_SIZE);
+        headers.putShort((short) PROGRAM_HEADER_SIZE);
+        headers.putShort((short) 1); // program header count
+        headers.putShort((short) 64); // section header size
+        headers.putShort((short) 0); // section header count
+        headers.putShort((short) 0); // section name table index
+
+        // program header
+        headers.putInt(1); // loadable segment
+        headers.putInt(0b101); // readable and executable
+        headers.putLong(0); // offset in file
+        headers.putLong(BASE_ADDRESS); // virtual address
+        headers.putLong(BASE_ADDRESS); // physical address
+        headers.putLong(fileSize); // size in file
+        headers.putLong(fileSize); // size in memory
+        headers.putLong(0x1000); // alignment
+        headers.flip();
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer[] buffers = {headers, ByteBuffer.wrap(code)};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+        path.toFile().setExecutable(true);
+    }
+}
@@ -0,0 +1,207 @@
+package edu.kit.kastel.vads.compiler.backend.emit;
+
+import java.util.Arrays;
+
+import edu.kit.kastel.vads.compiler.backend.instrsel.FixReg;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Immediate;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Parameter;
+import edu.kit.kastel.vads.compiler.backend.instrsel.StackSlot;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
+
+// Translates instructions into x86-64 machine code, i.e. the binary counterpart of Instruction.emit.
+// Only the operations of Opcode and the operand forms produced by the backend are supported.
+// The operand size is 32 bit unless a 64 bit register is involved (e.g. when adjusting %rsp).
+public class X86Encoder {
+
+    private static final int REX = 0x40, REX_W = 0x08, REX_R = 0x04, REX_B = 0x01;
+
+    private final TargetRegisters registers;
+    private byte[] code = new byte[256];
+    private int size = 0;
+
+    public X86Encoder(TargetRegisters registers) {
+        this.registers = registers;
+    }
+
+    // Counterpart of InstructionSelector.getGlobalPrologue: calls the following code
+    // and passes its result to the exit syscall.
+    public void encodeEntryStub() {
+        emit8(0xE8); // call _main
+        int call = this.size;
+        emit32(0);
+        emitBytes(0x48, 0x89, 0xC7); // movq %rax, %rdi
+        emitBytes(0x48, 0xC7, 0xC0); // movq $0x3C, %rax
+        emit32(0x3C);
+        emitBytes(0x0F, 0x05); // syscall
+        patch32(call, this.size - (call + 4)); // _main starts here
+    }
+
+    public void encode(Instruction ins) {
+        Parameter left = ins.getLeft(), right = ins.getRight();
+
+        // if neccessary, add spilling operation (load from stack), see Instruction.emit
+        if(left != null && left.isSpilled()) {
+            left.setSpillingRegister(this.registers.spilling1());
+            encodeBinary(stackSlot(left), left, 0x89, 0x8B, -1);
+        }
+        if(right != null && right.isSpilled()) {
+            right.setSpillingRegister(this.registers.spilling2());
+            encodeBinary(stackSlot(right), right, 0x89, 0x8B, -1);
+        }
+
+        switch (ins.getOpcode()) {
+            // operation codes of the forms "r/m op= r", "r op= r/m" and "r/m op= imm" (opcode extension)
+            case MOV -> encodeBinary(left, right, 0x89, 0x8B, -1);
+            case ADD -> encodeBinary(left, right, 0x01, 0x03, 0);
+            case OR -> encodeBinary(left, right, 0x09, 0x0B, 1);
+            case AND -> encodeBinary(left, right, 0x21, 0x23, 4);
+            case SUB -> encodeBinary(left, right, 0x29, 0x2B, 5);
+            case XOR -> encodeBinary(left, right, 0x31, 0x33, 6);
+            case CMP -> encodeBinary(left, right, 0x39, 0x3B, 7);
+            case IMUL -> {
+                boolean wide = isWide(left) || isWide(right);
+                if (left instanceof Immediate imm) {
+                    // three operand form with the destination as source, i.e. r = r * imm
+                    boolean small = isByte(imm.value);
+                    emitModRM(wide, registerNumber(right), right, small ? 0x6B : 0x69);
+                    emitImmediate(imm.value, small);
+                } else {
+                    emitModRM(wide, registerNumber(right), left, 0x0F, 0xAF);
+                }
+            }
+            case SHL -> {
+                int count = ((Immediate) left).value;
+                if (count == 1) {
+                    emitModRM(isWide(right), 4, right, 0xD1);
+                } else {
+                    emitModRM(isWide(right), 4, right, 0xC1);
+                    emit8(count);
+                }
+            }
+            case IDIV -> emitModRM(isWide(left), 7, left, 0xF7);
+            case CLTQ -> emitBytes(0x48, 0x98);
+            case CQTO -> emitBytes(0x48, 0x99);
+            case RET -> emit8(0xC3);
+        }
+
+        // if neccessary, add spilling operation (save to stack)
+        if(left != null && left.isSpilled()) {
+            encodeBinary(left, stackSlot(left), 0x89, 0x8B, -1);
+        }
+        if(right != null && right.isSpilled()) {
+            encodeBinary(right, stackSlot(right), 0x89, 0x8B, -1);
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(this.code, this.size);
+    }
+
+    // Encodes a two operand instruction (AT&T order: left is the source, right the destination).
+    // extension < 0 denotes a mov, which has a separate operation code for immediates.
+    private void encodeBinary(Parameter left, Parameter right, int storeOpcode, int loadOpcode, int extension) {
+        boolean wide = isWide(left) || isWide(right);
+        if (left instanceof Immediate imm) {
+            if (extension < 0) {
+                emitModRM(wide, 0, right, 0xC7);
+                emit32(imm.value);
+            } else {
+                boolean small = isByte(imm.value);
+                emitModRM(wide, extension, right, small ? 0x83 : 0x81);
+                emitImmediate(imm.value, small);
+            }
+        } else if (left instanceof StackSlot) {
+            emitModRM(wide, registerNumber(right), left, loadOpcode);
+        } else {
+            emitModRM(wide, registerNumber(left), right, storeOpcode);
+        }
+    }
+
+    // Emits the (optional) REX prefix, the operation code and the ModRM byte addressing
+    // either a register or a stack slot (with a SIB byte, as the base is %rsp).
+    private void emitModRM(boolean wide, int reg, Parameter rm, int... opcode) {
+        int rex = (wide ? REX_W : 0) | (reg >= 8 ? REX_R : 0);
+        if (!(rm instanceof StackSlot) && registerNumber(rm) >= 8) rex |= REX_B;
+        if (rex != 0) emit8(REX | rex);
+        emitBytes(opcode);
+        if (rm instanceof StackSlot slot) {
+            int mod = slot.offset == 0 ? 0 : isByte(slot.offset) ? 1 : 2;
+            emit8(mod << 6 | (reg & 7) << 3 | 0b100);
+            emit8(0x24); // scale 1, no index, base %rsp
+            if (mod == 1) emit8(slot.offset);
+            else if (mod == 2) emit32(slot.offset);
+        } else {
+            emit8(0b11 << 6 | (reg & 7) << 3 | (registerNumber(rm) & 7));
+        }
+    }
+
+    private void emitImmediate(int value, boolean small) {
+        if (small) emit8(value);
+        else emit32(value);
+    }
+
+    private static StackSlot stackSlot(Parameter spilled) {
+        return new StackSlot(((TempReg) spilled).register.getStackOffset());
+    }
+
+    private static String registerName(Parameter p) {
+        return switch (p) {
+            case TempReg t -> t.register.getName();
+            case FixReg f -> f.name;
+            default -> throw new IllegalArgumentException("Expected a register operand: " + p);
+        };
+    }
+
+    // Register number as used in ModRM and REX, for 32 and 64 bit names (e.g. eax/rax or r8d/r8).
+    private static int registerNumber(Parameter p) {
+        String name = registerName(p);
+        return switch (name) {
+            case "eax", "rax" -> 0;
+            case "ecx", "rcx" -> 1;
+            case "edx", "rdx" -> 2;
+            case "ebx", "rbx" -> 3;
+            case "esp", "rsp" -> 4;
+            case "ebp", "rbp" -> 5;
+            case "esi", "rsi" -> 6;
+            case "edi", "rdi" -> 7;
+            default -> Integer.parseInt(name.substring(1, name.endsWith("d") ? name.length() - 1 : name.length()));
+        };
+    }
+
+    // whether the parameter is a 64 bit register (rax, ..., r15 as opposed to eax, ..., r15d)
+    private static boolean isWide(Parameter p) {
+        if (!(p instanceof TempReg || p instanceof FixReg)) return false;
+        String name = registerName(p);
+        return name.startsWith("r") && !name.endsWith("d");
+    }
+
+    private static boolean isByte(int value) {
+        return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE;
+    }
+
+    private void emitBytes(int... bytes) {
+        for (int b : bytes) emit8(b);
+    }
+
+    private void emit8(int b) {
+        if (this.size == this.code.length) {
+            this.code = Arrays.copyOf(this.code, this.code.length * 2);
+        }
+        this.code[this.size++] = (byte) b;
+    }
+
+    // little endian
+    private void emit32(int value) {
+        for (int i = 0; i < 4; i++) {
+            emit8(value >>> (8 * i));
+        }
+    }
+
+    private void patch32(int position, int value) {
+        for (int i = 0; i < 4; i++) {
+            this.code[position + i] = (byte) (value >>> (8 * i));
+        }
+    }
+}
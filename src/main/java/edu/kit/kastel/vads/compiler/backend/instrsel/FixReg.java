@@ -1,5 +1,7 @@
 package edu.kit.kastel.vads.compiler.backend.instrsel;
 
+import edu.kit.kastel.vads.compiler.backend.emit.AsmWriter;
+
 public class FixReg extends Parameter {
 
     public final String name;
@@ -9,8 +11,8 @@ public class FixReg extends Parameter {
     }
 
     @Override
-    public String print(boolean debug) {
-        return "%" + this.name;
+    public void emit(AsmWriter out, boolean debug) {
+        out.append('%').append(this.name);
     }
 
     @Override
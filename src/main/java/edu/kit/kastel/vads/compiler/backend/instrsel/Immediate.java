@@ -1,5 +1,7 @@
 package edu.kit.kastel.vads.compiler.backend.instrsel;
 
+import edu.kit.kastel.vads.compiler.backend.emit.AsmWriter;
+
 public class Immediate extends Parameter {
 
     public final int value;
@@ -10,8 +12,8 @@ public class Immediate extends Parameter {
     }
 
     @Override
-    public String print(boolean debug) {
-        return "$" + this.value;
+    public void emit(AsmWriter out, boolean debug) {
+        out.append('$').append(this.value);
     }
 
     @Override
@@ -2,156 +2,212 @@ package edu.kit.kastel.vads.compiler.backend.instrsel;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
-import edu.kit.kastel.vads.compiler.backend.regalloc.RegisterAllocator;
+import edu.kit.kastel.vads.compiler.backend.dataflow.BitVector;
+import edu.kit.kastel.vads.compiler.backend.emit.AsmWriter;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
 
 public final class Instruction<S extends Parameter,T extends Parameter> {
-    private final String operation;
-    private final int parameterCount, label;
+    private static final int COMMENT_COLUMN = 30; // debug comments are aligned at this column
+
+    private final Opcode opcode;
+    private final int label;
     private S left;
     private T right;
 
-    //predicates for liveness analysis
-    private final List<TempReg> use = new ArrayList<>(), def = new ArrayList<>(), live = new ArrayList<>(); 
+    //predicates for liveness analysis (use and def are derived from the operands, see Opcode)
     private final List<Instruction> succ = new ArrayList<>();
+    private BitVector live = new BitVector(0); //temporary registers live before this instruction (only set for the debug listing, see Liveness.annotate)
 
-    public Instruction(int label, String operation) {
+    public Instruction(int label, Opcode opcode) {
         this.label = label;
-        this.operation = operation;
-        this.parameterCount = 0;
+        this.opcode = opcode;
     }
 
-    public Instruction(int label, String operation, S left) {
+    public Instruction(int label, Opcode opcode, S left) {
         this.label = label;
-        this.operation = operation;
+        this.opcode = opcode;
         this.left = left;
-        this.parameterCount = 1;
     }
 
-    public Instruction(int label, String operation, S left, T right) {
+    public Instruction(int label, Opcode opcode, S left, T right) {
         this.label = label;
-        this.operation = operation;
+        this.opcode = opcode;
         this.left = left;
         this.right = right;
-        this.parameterCount = 2;
     }
 
-    public String print(boolean debugMode) {
-        List<String> lines = new ArrayList<>();
-        String prefix = (debugMode ? String.valueOf(getLabel()) + ": " : ""); // adds line numbering for debugging
-        String suffixSpilling = "(due to spilling)"; // adds comment for debugging
-
+    // Writes this instruction as one line of assembly. In debug mode, temporary registers are printed
+    // instead of their assigned registers and each line is prefixed by its label and followed by the live temps.
+    public void emit(AsmWriter out, TargetRegisters registers, boolean debugMode) {
         // if neccessary, add spilling operation (load from stack)
         if(left != null && left.isSpilled()) {
-            left.setSpillingRegister(RegisterAllocator.SPILLING_REG_1);
-            String line = prefix + getSpillingLoadInstruction((TempReg) left, debugMode);
-            if(debugMode) line += getIdentation(line) + suffixSpilling;
-            lines.add(line);
+            left.setSpillingRegister(registers.spilling1());
+            emitSpillingLoad(out, (TempReg) left, debugMode);
         }
         if(right != null && right.isSpilled()) {
-            right.setSpillingRegister(RegisterAllocator.SPILLING_REG_2);
-            String line = prefix + getSpillingLoadInstruction((TempReg) right, debugMode);
-            if(debugMode) line += getIdentation(line) + suffixSpilling;
-            lines.add(line);
+            right.setSpillingRegister(registers.spilling2());
+            emitSpillingLoad(out, (TempReg) right, debugMode);
         }
 
         // print operation
-        String op = prefix + 
-            switch(this.parameterCount) {
-                case 0  -> operation;
-                case 1  -> operation + " " + 
-                    (left == null ? "null" : left.print(debugMode));
-                default -> operation + " " + 
-                    (left == null ? "null" : left.print(debugMode)) + ", " + 
-                    (right == null ? "null" : right.print(debugMode));
-            };
-        op += (debugMode ? getIdentation(op) + "{live: " + getLive().stream().map(t -> t.print(debugMode))
-            .collect(Collectors.joining(",")) + "}" : "");
-        lines.add(op);
+        emitPrefix(out, debugMode);
+        out.append(this.opcode.mnemonic);
+        // without a register operand the operand size has to be given explicitly (e.g. movl $1, 8(%rsp))
+        if((left instanceof StackSlot || right instanceof StackSlot) 
+            && !(left instanceof TempReg || left instanceof FixReg || right instanceof TempReg || right instanceof FixReg)) {
+            out.append('l');
+        }
+        if(this.opcode.operandCount >= 1) {
+            out.append(' ');
+            emitParameter(out, left, debugMode);
+        }
+        if(this.opcode.operandCount >= 2) {
+            out.append(", ");
+            emitParameter(out, right, debugMode);
+        }
+        if(debugMode) {
+            out.padTo(COMMENT_COLUMN).append("{live: ");
+            boolean[] first = {true};
+            getLive().forEach(id -> {
+                if(!first[0]) out.append(',');
+                out.append("%t").append(id);
+                first[0] = false;
+            });
+            out.append('}');
+        }
+        out.newLine();
 
         // if neccessary, add spilling operation (save to stack)
         if(left != null && left.isSpilled()) {
-            String line = prefix + getSpillingSaveInstruction((TempReg) left, debugMode);
-            if(debugMode) line += getIdentation(line) + suffixSpilling;
-            lines.add(line);
+            emitSpillingSave(out, (TempReg) left, debugMode);
         }
         if(right != null && right.isSpilled()) {
-            String line = prefix + getSpillingSaveInstruction((TempReg) right, debugMode);
-            if(debugMode) line += getIdentation(line) + suffixSpilling;
-            lines.add(line);
+            emitSpillingSave(out, (TempReg) right, debugMode);
         }
+    }
 
-        return String.join("\n", lines);
+    private void emitPrefix(AsmWriter out, boolean debugMode) {
+        if(debugMode) out.append(getLabel()).append(": "); // adds line numbering for debugging
     }
 
-    private static String getIdentation(String line) {
-        return " ".repeat(30 - line.length());
+    private static void emitParameter(AsmWriter out, Parameter p, boolean debugMode) {
+        if(p == null) out.append("null");
+        else p.emit(out, debugMode);
     }
 
-    private static String getSpillingLoadInstruction(TempReg t, boolean debugMode) {
+    private void emitSpillingLoad(AsmWriter out, TempReg t, boolean debugMode) {
         // stack -> spill_reg
-        return "mov " + t.register.getStackOffset() + "(%rsp), " + t.print(debugMode);
+        emitPrefix(out, debugMode);
+        out.append("mov ").append(t.register.getStackOffset()).append("(%rsp), ");
+        t.emit(out, debugMode);
+        emitSpillingSuffix(out, debugMode);
     }
 
-    private static String getSpillingSaveInstruction(TempReg t, boolean debugMode) {
+    private void emitSpillingSave(AsmWriter out, TempReg t, boolean debugMode) {
         // spill_reg -> stack
-        return "mov "+ t.print(debugMode) + ", " + t.register.getStackOffset() + "(%rsp)";
+        emitPrefix(out, debugMode);
+        out.append("mov ");
+        t.emit(out, debugMode);
+        out.append(", ").append(t.register.getStackOffset()).append("(%rsp)");
+        emitSpillingSuffix(out, debugMode);
+    }
+
+    private static void emitSpillingSuffix(AsmWriter out, boolean debugMode) {
+        if(debugMode) out.padTo(COMMENT_COLUMN).append("(due to spilling)"); // adds comment for debugging
+        out.newLine();
     }
 
     public int getLabel() {
         return this.label;
     }
 
-    public void use(TempReg t) {
-        this.use.add(t);
+    public Opcode getOpcode() {
+        return this.opcode;
+    }
+
+    public S getLeft() {
+        return this.left;
+    }
+
+    public T getRight() {
+        return this.right;
     }
 
-    public void def(TempReg t){
-        this.def.add(t);
+    // Whether this instruction copies one temporary register into another.
+    public boolean isMove() {
+        return this.opcode == Opcode.MOV && this.left instanceof TempReg && this.right instanceof TempReg;
     }
 
-    public void calculateInterference() {
-        List<TempReg> interfering = this.def;
-        interfering.removeIf(t -> this.use.contains(t));
-        for(TempReg t : interfering) {
-            t.interferes(); //mark as interfering
+    // Whether this instruction is a move whose source and destination ended up
+    // in the same location after register allocation (e.g. due to coalescing).
+    public boolean isRedundantMove() {
+        return isMove() && ((TempReg) this.left).register == ((TempReg) this.right).register;
+    }
+
+    // Names of the fixed (32 bit) registers overwritten by this instruction,
+    // e.g. idiv implicitly writes the quotient to %eax and the remainder to %edx.
+    public List<String> getClobbered() {
+        if (this.opcode.right.writes() && this.right instanceof FixReg fix) {
+            List<String> clobbered = new ArrayList<>(this.opcode.clobbered);
+            clobbered.add(fix.name);
+            return clobbered;
         }
+        return this.opcode.clobbered;
+    }
+
+    // Names of the fixed (32 bit) registers implicitly read by this instruction.
+    public List<String> getImplicitlyUsed() {
+        return this.opcode.implicitlyUsed;
     }
 
     public void succ(Instruction i) {
         this.succ.add(i);
     }
 
-    public void live(TempReg t) {
-        this.live.add(t);
+    // Replaces a temporary register operand by its stack slot, i.e. the instruction
+    // accesses the spilled value directly in memory and no longer uses or defines the temp.
+    public void foldStackSlot(TempReg t, StackSlot slot) {
+        if (this.left == t) this.left = (S) slot;
+        if (this.right == t) this.right = (T) slot;
+    }
+
+    public void clearSucc() {
+        this.succ.clear();
     }
 
-    public void live(List<TempReg> lt) {
-        this.live.addAll(lt);
+    // Replaces all occurrences of a temporary register operand by another one.
+    public void replace(TempReg old, TempReg replacement) {
+        if (this.left == old) this.left = (S) replacement;
+        if (this.right == old) this.right = (T) replacement;
+    }
+
+    public void setLive(BitVector live) {
+        this.live = live;
     }
 
     public List<Instruction> getSucc() {
         return this.succ;
     }
 
+    // Temporary registers read by this instruction.
     public List<TempReg> getUse() {
-        return this.use;
+        return operands(this.opcode.left.reads(), this.opcode.right.reads());
     }
 
+    // Temporary registers written by this instruction.
     public List<TempReg> getDef() {
-        return this.def;
-    }
-
-    public List<TempReg> getLive() {
-        return this.live;
+        return operands(this.opcode.left.writes(), this.opcode.right.writes());
     }
 
-    public boolean isUndef(TempReg t) {
-        return !this.def.contains(t);
+    private List<TempReg> operands(boolean includeLeft, boolean includeRight) {
+        TempReg l = includeLeft && this.left instanceof TempReg t ? t : null;
+        TempReg r = includeRight && this.right instanceof TempReg t && t != l ? t : null;
+        if (l == null) return r == null ? List.of() : List.of(r);
+        return r == null ? List.of(l) : List.of(l, r);
     }
 
-    public boolean isLive(TempReg t) {
-        return this.live.contains(t);
+    public BitVector getLive() {
+        return this.live;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package edu.kit.kastel.vads.compiler.backend.instrsel;
 import java.util.ArrayList;
 import java.util.List;
 
+import edu.kit.kastel.vads.compiler.CompilationContext;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
 import edu.kit.kastel.vads.compiler.ir.node.AddNode;
 import edu.kit.kastel.vads.compiler.ir.node.ConstIntNode;
@@ -18,10 +19,15 @@ import edu.kit.kastel.vads.compiler.ir.util.NodeSupport;
 
 public class InstructionSelector {
 
+    private final CompilationContext context;
     private Integer REG_COUNTER = 0;
     private Integer INSTR_COUNTER = 1;
     public List<TempReg> ALL_TREGS = new ArrayList<>(); //holds all temporary registers (used for easier recalloc)
 
+    public InstructionSelector(CompilationContext context) {
+        this.context = context;
+    }
+
     // Creates a maximal munch cover of the IR tree.
     // Expects a graph for every function within the program.
     public List<Instruction> performIS(List<IrGraph> irGraphs) {
@@ -29,10 +35,9 @@ public class InstructionSelector {
         for (IrGraph functionGraph : irGraphs) {
             // String funcName = functionGraph.name();
             TempReg funcResult = maximalMunch(functionGraph.endBlock().predecessor(0), builder);
-            Instruction ins = new Instruction(INSTR_COUNTER++, "mov", funcResult, new FixReg("eax"));
-            ins.use(funcResult);
+            Instruction ins = new Instruction(INSTR_COUNTER++, Opcode.MOV, funcResult, new FixReg("eax"));
             builder.add(ins);
-            builder.add(new Instruction(INSTR_COUNTER++, "cltq"));
+            builder.add(new Instruction(INSTR_COUNTER++, Opcode.CLTQ));
         }
         return builder;
     }
@@ -41,9 +46,10 @@ public class InstructionSelector {
     // instruction sequence within a sorted list.
     public TempReg maximalMunch(Node node, List<Instruction> builder) {
         TempReg res;
+        InstructionInfo info = this.context.instructionInfo(node);
 
-        if(node.instructionInfo.wasVisited()) {
-            res = node.instructionInfo.getRegister();
+        if(info.wasVisited()) {
+            res = info.getRegister();
         } else {
             switch (node) {
                 case AddNode add -> res = handleAddNode(add, builder);
@@ -59,8 +65,8 @@ public class InstructionSelector {
                     return null;
                 }
             }
-            node.instructionInfo.setRegister(res); //save result register at Node
-            node.instructionInfo.visit(); //mark as visited
+            info.setRegister(res); //save result register for the Node
+            info.visit(); //mark as visited
         }
 
         return res;
@@ -70,7 +76,7 @@ public class InstructionSelector {
         // add stack allocation for spilled registers
         if(spilledRegs > 0) {
             instructions.addFirst(new Instruction(0, 
-                "sub", new Immediate(spilledRegs * 8), new FixReg("rsp")));
+                Opcode.SUB, new Immediate(spilledRegs * 8), new FixReg("rsp")));
         }
     }
 
@@ -78,9 +84,9 @@ public class InstructionSelector {
         // add stack deallocation for spilled registers
         if(spilledRegs > 0) {
             instructions.addLast(new Instruction(INSTR_COUNTER++, 
-                "add", new Immediate(spilledRegs * 8), new FixReg("rsp")));
+                Opcode.ADD, new Immediate(spilledRegs * 8), new FixReg("rsp")));
         }
-        instructions.addLast(new Instruction(INSTR_COUNTER++, "ret"));
+        instructions.addLast(new Instruction(INSTR_COUNTER++, Opcode.RET));
     }
 
     public static String getGlobalPrologue() {
@@ -99,7 +105,7 @@ public class InstructionSelector {
         """;
     }
 
-    private TempReg newTempReg() {
+    public TempReg newTempReg() {
         TempReg t = new TempReg(REG_COUNTER++);
         ALL_TREGS.add(t);
         return t;
@@ -119,8 +125,7 @@ public class InstructionSelector {
             case ConstIntNode c -> { 
                 res = newTempReg();
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(c.value()), res);
-                ins.def(res);
+                    Opcode.MOV, new Immediate(c.value()), res);
                 builder.add(ins); 
             }
             default -> res = maximalMunch(resNode, builder);
@@ -144,36 +149,27 @@ public class InstructionSelector {
             case CONST_CONST -> {
                 res = newTempReg();
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l + children.val_r), res);
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_l + children.val_r), res);
                 builder.add(ins);
             }
             case CONST_LEFT -> {
                 res = newTempReg();
                 TempReg t = maximalMunch(right, builder);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", t, res); // res <- r
-                ins.use(t);
-                ins.def(res);
+                    Opcode.MOV, t, res); // res <- r
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "add", new Immediate(children.val_l), res); // res += l
-                ins.def(res);
-                ins.use(res);
+                    Opcode.ADD, new Immediate(children.val_l), res); // res += l
                 builder.add(ins); 
             }
             case CONST_RIGHT -> {
                 res = newTempReg();
                 TempReg t = maximalMunch(left, builder);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", t, res); // res <- l
-                ins.use(t);
-                ins.def(res);
+                    Opcode.MOV, t, res); // res <- l
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "add", new Immediate(children.val_r), res); // res += r
-                ins.def(res);
-                ins.use(res);
+                    Opcode.ADD, new Immediate(children.val_r), res); // res += r
                 builder.add(ins);
             }
             default -> {
@@ -181,14 +177,9 @@ public class InstructionSelector {
                 TempReg t1 = maximalMunch(left, builder);
                 TempReg t2 = maximalMunch(right, builder);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", t1, res); // res <- l
-                ins.use(t1);
-                ins.def(res);
+                    Opcode.MOV, t1, res); // res <- l
                 builder.add(ins);
-                ins = new Instruction(INSTR_COUNTER++, "add", t2, res); // res += r
-                ins.def(res);
-                ins.use(t2);
-                ins.use(res);
+                ins = new Instruction(INSTR_COUNTER++, Opcode.ADD, t2, res); // res += r
                 builder.add(ins);
             }
         }
@@ -207,36 +198,27 @@ public class InstructionSelector {
             case CONST_CONST -> {
                 res = newTempReg();
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l - children.val_r), res);
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_l - children.val_r), res);
                 builder.add(ins);
             }
             case CONST_LEFT -> {
                 res = newTempReg();
                 TempReg t = maximalMunch(right, builder); // t <- r
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l), res); // res <- l
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_l), res); // res <- l
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "sub", t, res); // res -= t 
-                ins.def(res);
-                ins.use(t);
-                ins.use(res);
+                    Opcode.SUB, t, res); // res -= t 
                 builder.add(ins); 
             }
             case CONST_RIGHT -> { 
                 res = newTempReg();
                 TempReg t = maximalMunch(left, builder);
                 ins = new Instruction(INSTR_COUNTER++,
-                    "mov", t, res); // res <- l
-                ins.use(t);
-                ins.def(res);
+                    Opcode.MOV, t, res); // res <- l
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "sub", new Immediate(children.val_r), res); // res -= r
-                ins.def(res);
-                ins.use(res);
+                    Opcode.SUB, new Immediate(children.val_r), res); // res -= r
                 builder.add(ins);
             }
             default -> {
@@ -244,14 +226,9 @@ public class InstructionSelector {
                 TempReg t1 = maximalMunch(left, builder);
                 TempReg t2 = maximalMunch(right, builder);
                 ins = new Instruction(INSTR_COUNTER++,
-                    "mov", t1, res); // res <- l
-                ins.use(t1);
-                ins.def(res);
+                    Opcode.MOV, t1, res); // res <- l
                 builder.add(ins);
-                ins = new Instruction(INSTR_COUNTER++, "sub", t2, res); // res -= r
-                ins.def(res);
-                ins.use(t2);
-                ins.use(res);
+                ins = new Instruction(INSTR_COUNTER++, Opcode.SUB, t2, res); // res -= r
                 builder.add(ins);
             }
         }
@@ -270,30 +247,23 @@ public class InstructionSelector {
             case CONST_CONST -> {
                 res = newTempReg();
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l * children.val_r), res);
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_l * children.val_r), res);
                 builder.add(ins);
             }
             case CONST_LEFT -> {
                 res = newTempReg();
                 TempReg t = maximalMunch(right, builder);
                 ins = new Instruction(INSTR_COUNTER++,
-                    "mov", t, res); // res <- r
-                ins.use(t);
-                ins.def(res);
+                    Opcode.MOV, t, res); // res <- r
                 builder.add(ins);
                 if((Math.log(children.val_l) / Math.log(2)) % 1 == 0) {
                     //optimization: << instead of * (if imm is a power of 2)
                     ins = new Instruction(INSTR_COUNTER++, 
-                        "shl", new Immediate((int) (Math.log(children.val_l) / Math.log(2))), res); //shift res
-                    ins.def(res);
-                    ins.use(res);
+                        Opcode.SHL, new Immediate((int) (Math.log(children.val_l) / Math.log(2))), res); //shift res
                     builder.add(ins); 
                 } else {
                     ins = new Instruction(INSTR_COUNTER++, 
-                        "imul", new Immediate(children.val_l), res);
-                    ins.def(res);
-                    ins.use(res);
+                        Opcode.IMUL, new Immediate(children.val_l), res);
                     builder.add(ins); 
                 }
             }
@@ -301,22 +271,16 @@ public class InstructionSelector {
                 res = newTempReg();
                 TempReg t = maximalMunch(left, builder);
                 ins = new Instruction(INSTR_COUNTER++,
-                    "mov", t, res); // res <- l
-                ins.use(t);
-                ins.def(res);
+                    Opcode.MOV, t, res); // res <- l
                 builder.add(ins);
                 if((Math.log(children.val_r) / Math.log(2)) % 1 == 0) {
                     //optimization: << instead of * (if imm is a power of 2)
                     ins = new Instruction(INSTR_COUNTER++, 
-                        "shl", new Immediate((int) (Math.log(children.val_r) / Math.log(2))), res); //shift res
-                    ins.def(res);
-                    ins.use(res);
+                        Opcode.SHL, new Immediate((int) (Math.log(children.val_r) / Math.log(2))), res); //shift res
                     builder.add(ins); 
                 } else {
                     ins = new Instruction(INSTR_COUNTER++, 
-                        "imul", new Immediate(children.val_r), res);
-                    ins.def(res);
-                    ins.use(res);
+                        Opcode.IMUL, new Immediate(children.val_r), res);
                     builder.add(ins); 
                 }
             }
@@ -325,15 +289,10 @@ public class InstructionSelector {
                 TempReg t1 = maximalMunch(left, builder);
                 TempReg t2 = maximalMunch(right, builder);
                 ins = new Instruction(INSTR_COUNTER++,
-                    "mov", t1, res); // res <- l
-                ins.use(t1);
-                ins.def(res);
+                    Opcode.MOV, t1, res); // res <- l
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "imul", t2, res); // res *= r
-                ins.def(res);
-                ins.use(t2);
-                ins.use(res);
+                    Opcode.IMUL, t2, res); // res *= r
                 builder.add(ins);
             }
         }
@@ -356,80 +315,70 @@ public class InstructionSelector {
         switch(children.pattern) {
             case CONST_CONST -> {
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
+                    Opcode.MOV, new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_r), res); //move r to res
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_r), res); //move r to res
                 builder.add(ins);
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++,
-                    "idiv", res); //divide %edx:%eax by res
-                ins.use(res);
+                    Opcode.IDIV, res); //divide %edx:%eax by res
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("edx"), res); //get remainder from %edx
-                ins.def(res);
+                    Opcode.MOV, new FixReg("edx"), res); //get remainder from %edx
                 builder.add(ins);
             }
             case CONST_LEFT -> {
                 TempReg t = maximalMunch(right, builder);
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
+                    Opcode.MOV, new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++,
-                    "idiv", t); //divide %eax:%edx by r
-                ins.use(t);
+                    Opcode.IDIV, t); //divide %eax:%edx by r
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("edx"), res); //get remainder from %edx
-                ins.def(res);
+                    Opcode.MOV, new FixReg("edx"), res); //get remainder from %edx
                 builder.add(ins);
             }
             case CONST_RIGHT -> {
                 TempReg t = maximalMunch(left, builder);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", t, new FixReg("eax")); //move l to %eax
-                ins.use(t);
+                    Opcode.MOV, t, new FixReg("eax")); //move l to %eax
                 builder.add(ins);
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_r), res); //move r to res
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_r), res); //move r to res
+                builder.add(ins);
+                ins = new Instruction(INSTR_COUNTER++, 
+                    Opcode.IDIV, res); //divide %edx:%eax by res
                 builder.add(ins);
-                builder.add(new Instruction(INSTR_COUNTER++, 
-                    "idiv", res)); //divide %edx:%eax by res
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("edx"), res); //get remainder from %edx
-                ins.def(res);
+                    Opcode.MOV, new FixReg("edx"), res); //get remainder from %edx
                 builder.add(ins);
             }
             default -> {
                 TempReg t1 = maximalMunch(left, builder);
                 TempReg t2 = maximalMunch(right, builder);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", t1, new FixReg("eax")); //move l to %eax
-                ins.use(t1);
+                    Opcode.MOV, t1, new FixReg("eax")); //move l to %eax
                 builder.add(ins);                
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "idiv", t2); //divide %eax:%edx by r
-                ins.use(t2);
+                    Opcode.IDIV, t2); //divide %eax:%edx by r
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("edx"), res); //get remainder from %edx
-                ins.def(res);
+                    Opcode.MOV, new FixReg("edx"), res); //get remainder from %edx
                 builder.add(ins);
             }
         }
@@ -453,80 +402,70 @@ public class InstructionSelector {
         switch(children.pattern) {
             case CONST_CONST -> {
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
+                    Opcode.MOV, new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_r), res); //move r to res
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_r), res); //move r to res
                 builder.add(ins);
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++,
-                    "idiv", res); //divide %eax:%edx by r
-                ins.use(res);
+                    Opcode.IDIV, res); //divide %eax:%edx by r
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("eax"), res); //get quotient from %eax
-                ins.def(res);
+                    Opcode.MOV, new FixReg("eax"), res); //get quotient from %eax
                 builder.add(ins);
             }
             case CONST_LEFT -> {
                 TempReg t = maximalMunch(right, builder);
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
+                    Opcode.MOV, new Immediate(children.val_l), new FixReg("eax"))); //move l to %eax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "idiv", t); //divide %eax:%edx by r
-                ins.use(t);
+                    Opcode.IDIV, t); //divide %eax:%edx by r
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("eax"), res); //get quotient from %eax
-                ins.def(res);
+                    Opcode.MOV, new FixReg("eax"), res); //get quotient from %eax
                 builder.add(ins);
             }
             case CONST_RIGHT -> {
                 TempReg t = maximalMunch(left, builder);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", t, new FixReg("eax")); //move l to %eax
-                ins.use(t);
+                    Opcode.MOV, t, new FixReg("eax")); //move l to %eax
                 builder.add(ins);
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new Immediate(children.val_r), res); //move r to res
-                ins.def(res);
+                    Opcode.MOV, new Immediate(children.val_r), res); //move r to res
+                builder.add(ins);
+                ins = new Instruction(INSTR_COUNTER++, 
+                    Opcode.IDIV, res); //divide %eax:%edx by res
                 builder.add(ins);
-                builder.add(new Instruction(INSTR_COUNTER++, 
-                    "idiv", res)); //divide %eax:%edx by res
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("eax"), res); //get quotient from %eax
-                ins.def(res);
+                    Opcode.MOV, new FixReg("eax"), res); //get quotient from %eax
                 builder.add(ins);
             }
             default -> {
                 TempReg t1 = maximalMunch(left, builder);
                 TempReg t2 = maximalMunch(right, builder);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", t1, new FixReg("eax")); //move l to %eax
-                ins.use(t1);
+                    Opcode.MOV, t1, new FixReg("eax")); //move l to %eax
                 builder.add(ins);
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cltq")); //extend to rax
+                    Opcode.CLTQ)); //extend to rax
                 builder.add(new Instruction(INSTR_COUNTER++, 
-                    "cqto")); //clear rdx
+                    Opcode.CQTO)); //clear rdx
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "idiv", t2); //divide %eax:%edx by r
-                ins.use(t2);
+                    Opcode.IDIV, t2); //divide %eax:%edx by r
                 builder.add(ins);
                 ins = new Instruction(INSTR_COUNTER++, 
-                    "mov", new FixReg("eax"), res); //get quotient from %eax
-                ins.def(res);
+                    Opcode.MOV, new FixReg("eax"), res); //get quotient from %eax
                 builder.add(ins);
             }
         }
@@ -0,0 +1,54 @@
+package edu.kit.kastel.vads.compiler.backend.instrsel;
+
+import java.util.List;
+
+// The x86-64 operations emitted by the instruction selector, together with how they access their operands.
+// AT&T syntax: for two operands the left one is the source and the right one the destination.
+// Registers are given by their 32 bit names (see TargetRegisters).
+public enum Opcode {
+    MOV("mov", 2, Access.READ, Access.WRITE, List.of(), List.of(), true),
+    ADD("add", 2, Access.READ, Access.READ_WRITE, List.of(), List.of(), true),
+    SUB("sub", 2, Access.READ, Access.READ_WRITE, List.of(), List.of(), true),
+    IMUL("imul", 2, Access.READ, Access.READ_WRITE, List.of(), List.of(), true),
+    SHL("shl", 2, Access.READ, Access.READ_WRITE, List.of(), List.of(), false), // count is immediate or %cl
+    CMP("cmp", 2, Access.READ, Access.READ, List.of(), List.of(), true),
+    AND("and", 2, Access.READ, Access.READ_WRITE, List.of(), List.of(), true),
+    OR("or", 2, Access.READ, Access.READ_WRITE, List.of(), List.of(), true),
+    XOR("xor", 2, Access.READ, Access.READ_WRITE, List.of(), List.of(), true),
+    // divides %edx:%eax, writes the quotient to %eax and the remainder to %edx
+    IDIV("idiv", 1, Access.READ, Access.NONE, List.of("eax", "edx"), List.of("eax", "edx"), true),
+    CLTQ("cltq", 0, Access.NONE, Access.NONE, List.of("eax"), List.of("eax"), false), // sign extends %eax to %rax
+    CQTO("cqto", 0, Access.NONE, Access.NONE, List.of("eax"), List.of("edx"), false), // sign extends %rax to %rdx:%rax
+    RET("ret", 0, Access.NONE, Access.NONE, List.of("eax"), List.of(), false);
+
+    public enum Access {
+        NONE, READ, WRITE, READ_WRITE;
+
+        public boolean reads() {
+            return this == READ || this == READ_WRITE;
+        }
+
+        public boolean writes() {
+            return this == WRITE || this == READ_WRITE;
+        }
+    }
+
+    public final String mnemonic;
+    public final int operandCount;
+    public final Access left, right;
+    // fixed registers read and written without being an operand
+    public final List<String> implicitlyUsed, clobbered;
+    // whether the left operand may be a memory operand (if the right one is a register)
+    public final boolean memorySource;
+
+    Opcode(String mnemonic, int operandCount, Access left, Access right,
+            List<String> implicitlyUsed, List<String> clobbered, boolean memorySource) {
+        this.mnemonic = mnemonic;
+        this.operandCount = operandCount;
+        this.left = left;
+        this.right = right;
+        this.implicitlyUsed = implicitlyUsed;
+        this.clobbered = clobbered;
+        this.memorySource = memorySource;
+    }
+}
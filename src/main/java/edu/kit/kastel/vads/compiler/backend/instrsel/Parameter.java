@@ -1,8 +1,10 @@
 package edu.kit.kastel.vads.compiler.backend.instrsel;
 
+import edu.kit.kastel.vads.compiler.backend.emit.AsmWriter;
+
 public abstract class Parameter {
 
-    public abstract String print(boolean debug);
+    public abstract void emit(AsmWriter out, boolean debug);
 
     public abstract boolean isSpilled();
 
@@ -0,0 +1,29 @@
+package edu.kit.kastel.vads.compiler.backend.instrsel;
+
+import edu.kit.kastel.vads.compiler.backend.emit.AsmWriter;
+
+// A memory operand addressing a spilling slot relative to the stack pointer.
+public class StackSlot extends Parameter {
+
+    public final int offset;
+
+    public StackSlot(int offset) {
+        this.offset = offset;
+    }
+
+    @Override
+    public void emit(AsmWriter out, boolean debug) {
+        out.append(this.offset).append("(%rsp)");
+    }
+
+    @Override
+    public boolean isSpilled() {
+        return false;
+    }
+
+    @Override
+    public void setSpillingRegister(String spillingRegister) {
+        //ignore
+    }
+
+}
@@ -1,20 +1,21 @@
 package edu.kit.kastel.vads.compiler.backend.instrsel;
 
+import edu.kit.kastel.vads.compiler.backend.emit.AsmWriter;
 import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
 
 public class TempReg extends Parameter {
 
     public final int id;
     public Register register;
-    private boolean interferes = false;
 
     public TempReg (int id) {
         this.id = id;
     }
 
     @Override
-    public String print(boolean debug) {
-        return "%" + (debug ? "t" + this.id : this.register.getName() + "d");
+    public void emit(AsmWriter out, boolean debug) {
+        if (debug) out.append("%t").append(this.id);
+        else out.append('%').append(this.register.getName());
     }
 
     public void setRegister(Register register) {
@@ -31,12 +32,8 @@ public class TempReg extends Parameter {
         this.register.setName(spillingRegister);
     }
 
-    
-    public void setInterfering() {
-        this.interferes = true;
-    }
-
-    public boolean interferes() {
-        return this.interferes;
+    // Whether a stack slot has been assigned to this temporary register.
+    public boolean hasStackSlot() {
+        return this.register != null && this.register.isSpilled;
     }
 }
\ No newline at end of file
@@ -1,18 +1,162 @@
 package edu.kit.kastel.vads.compiler.backend.liveness;
 
-import java.util.Set;
+import java.util.Arrays;
 
 public class InterferenceGraph {
 
-    // Adjacency list holds each node at index of their register id
-    // and the nodes neighbours respectively as set of their register ids
-    public final Set<Integer>[] adjacencyList;
     // Array of nodes with each node at index of its register id
     public final Node[] nodes;
+    // Compressed adjacency (CSR): the neighbours of node v are stored as register ids
+    // in neighbours[offsets[v]] to neighbours[offsets[v + 1] - 1]
+    public final int[] offsets;
+    public final int[] neighbours;
+    // Lower triangular bit matrix for constant time membership tests,
+    // the edge {a, b} with a > b is stored at bit a * (a - 1) / 2 + b.
+    // It holds the edges between the original nodes and is shared by the coalesced graphs
+    private final long[] matrix;
+    // Node v shares its color with node representative[v] (e.g. after coalescing),
+    // only representatives have edges
+    private final int[] representative;
+    private final boolean coalesced;
 
-    public InterferenceGraph(Set<Integer>[] adjacencyList, Node[] nodes) {
-        this.adjacencyList = adjacencyList;
+    private InterferenceGraph(Node[] nodes, int[] offsets, int[] neighbours, long[] matrix, int[] representative,
+            boolean coalesced) {
         this.nodes = nodes;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.matrix = matrix;
+        this.representative = representative;
+        this.coalesced = coalesced;
     }
 
-}
\ No newline at end of file
+    // Returns the graph in which node v is merged into representative[v] (representative[r] == r
+    // for each representative r). Only the adjacency arrays are rebuilt, the bit matrix is shared.
+    public InterferenceGraph coalesced(int[] representative) {
+        int n = this.nodes.length;
+        // group the nodes by their representative (counting sort)
+        int[] start = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            start[representative[v] + 1]++;
+        }
+        for (int r = 0; r < n; r++) {
+            start[r + 1] += start[r];
+        }
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int v = 0; v < n; v++) {
+            members[fill[representative[v]]++] = v;
+        }
+
+        int[] offsets = new int[n + 1];
+        int[] neighbours = new int[this.neighbours.length];
+        int[] stamp = new int[n]; // stamp[r] == v + 1 if r is already a neighbour of representative v
+        int size = 0;
+        for (int r = 0; r < n; r++) {
+            offsets[r] = size;
+            if (representative[r] != r) continue;
+            for (int m = start[r]; m < start[r + 1]; m++) {
+                int v = members[m];
+                for (int i = this.offsets[v]; i < this.offsets[v + 1]; i++) {
+                    int w = representative[this.neighbours[i]];
+                    if (w == r || stamp[w] == r + 1) continue;
+                    stamp[w] = r + 1;
+                    neighbours[size++] = w;
+                }
+            }
+        }
+        offsets[n] = size;
+        return new InterferenceGraph(this.nodes, offsets, Arrays.copyOf(neighbours, size), this.matrix,
+                representative, true);
+    }
+
+    public boolean interferes(int a, int b) {
+        a = this.representative[a];
+        b = this.representative[b];
+        if (a == b) return false;
+        long bit = matrixIndex(a, b);
+        if ((this.matrix[(int) (bit >>> 6)] & (1L << bit)) != 0) return true;
+        if (!this.coalesced) return false;
+        // the edge may come from a merged node, look at the shorter adjacency list
+        if (degree(a) > degree(b)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        for (int i = this.offsets[a]; i < this.offsets[a + 1]; i++) {
+            if (this.neighbours[i] == b) return true;
+        }
+        return false;
+    }
+
+    public int degree(int v) {
+        return this.offsets[v + 1] - this.offsets[v];
+    }
+
+    public int representative(int v) {
+        return this.representative[v];
+    }
+
+    public int edgeCount() {
+        return this.neighbours.length / 2;
+    }
+
+    private static long matrixIndex(int a, int b) {
+        int hi = Math.max(a, b), lo = Math.min(a, b);
+        return (long) hi * (hi - 1) / 2 + lo;
+    }
+
+    // Collects the edges of an interference graph. Duplicate edges are filtered by the bit matrix,
+    // so each edge is recorded only once and the adjacency arrays are filled in a second pass.
+    public static final class Builder {
+        private final Node[] nodes;
+        private final long[] matrix;
+        private final int[] degree;
+        private int[] edges = new int[64]; // pairs of register ids
+        private int edgeCount = 0;
+
+        public Builder(Node[] nodes) {
+            this.nodes = nodes;
+            long bits = matrixIndex(nodes.length, 0);
+            this.matrix = new long[(int) ((bits + 63) >>> 6)];
+            this.degree = new int[nodes.length];
+        }
+
+        public void addEdge(int a, int b) {
+            if (a == b) return;
+            long bit = matrixIndex(a, b);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((this.matrix[word] & mask) != 0) return; // already known
+            this.matrix[word] |= mask;
+            if (2 * this.edgeCount + 2 > this.edges.length) {
+                this.edges = Arrays.copyOf(this.edges, this.edges.length * 2);
+            }
+            this.edges[2 * this.edgeCount] = a;
+            this.edges[2 * this.edgeCount + 1] = b;
+            this.edgeCount++;
+            this.degree[a]++;
+            this.degree[b]++;
+        }
+
+        public InterferenceGraph build() {
+            int n = this.nodes.length;
+            int[] offsets = new int[n + 1];
+            for (int v = 0; v < n; v++) {
+                offsets[v + 1] = offsets[v] + this.degree[v];
+            }
+            int[] fill = Arrays.copyOf(offsets, n);
+            int[] neighbours = new int[offsets[n]];
+            for (int e = 0; e < this.edgeCount; e++) {
+                int a = this.edges[2 * e], b = this.edges[2 * e + 1];
+                neighbours[fill[a]++] = b;
+                neighbours[fill[b]++] = a;
+            }
+            int[] representative = new int[n];
+            for (int v = 0; v < n; v++) {
+                representative[v] = v;
+            }
+            return new InterferenceGraph(this.nodes, offsets, neighbours, this.matrix, representative, false);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package edu.kit.kastel.vads.compiler.backend.liveness;
+
+import edu.kit.kastel.vads.compiler.backend.dataflow.BasicBlock;
+import edu.kit.kastel.vads.compiler.backend.dataflow.BitVector;
+import edu.kit.kastel.vads.compiler.backend.dataflow.ControlFlowGraph;
+import edu.kit.kastel.vads.compiler.backend.dataflow.DataflowSolver;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+
+// Result of the liveness analysis (see LivenessAnalyzer.performLA): the temporary registers live at the end
+// of every basic block. The live temporaries of single instructions are not stored, as that would take
+// instructions x temps bits; they are derived by walking a block backwards from its end instead.
+public final class Liveness {
+
+    final Instruction[] instructions;
+    final ControlFlowGraph cfg;
+    final LivenessProblem problem;
+    private final DataflowSolver.Result result;
+
+    Liveness(Instruction[] instructions, ControlFlowGraph cfg, LivenessProblem problem, DataflowSolver.Result result) {
+        this.instructions = instructions;
+        this.cfg = cfg;
+        this.problem = problem;
+        this.result = result;
+    }
+
+    // temporary registers live at the end of the block
+    public BitVector liveOut(BasicBlock block) {
+        return this.result.out(block);
+    }
+
+    // Sets the live temporary registers at every instruction (see Instruction.getLive),
+    // which is only needed for the debug listing.
+    public void annotate() {
+        int tempCount = this.problem.universeSize();
+        BitVector use = new BitVector(tempCount), def = new BitVector(tempCount);
+        for (BasicBlock block : this.cfg.getBlocks()) {
+            BitVector live = liveOut(block);
+            for (int i = block.end - 1; i >= block.start; i--) {
+                use.clear();
+                def.clear();
+                this.problem.gen(i, use);
+                this.problem.kill(i, def);
+                BitVector liveBefore = new BitVector(tempCount);
+                liveBefore.assignTransfer(use, live, def);
+                this.instructions[i].setLive(liveBefore);
+                live = liveBefore;
+            }
+        }
+    }
+}
@@ -1,85 +1,94 @@
 package edu.kit.kastel.vads.compiler.backend.liveness;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
+import edu.kit.kastel.vads.compiler.backend.dataflow.BasicBlock;
+import edu.kit.kastel.vads.compiler.backend.dataflow.ControlFlowGraph;
+import edu.kit.kastel.vads.compiler.backend.dataflow.DataflowSolver;
 import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
 import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
 
 public class LivenessAnalyzer {
 
-    public static void performLA(Instruction[] instructions) {
+    // Calculates the live temporary registers at the end of every basic block.
+    // The temporary registers are expected to be numbered densely from 0 to tempCount - 1.
+    public static Liveness performLA(Instruction[] instructions, int tempCount) {
         for (int i = instructions.length - 1; i >= 0; i--) {
-            // use(l,t) -> live(l,t)
-            instructions[i].live(instructions[i].getUse()); //apply rule K1
+            instructions[i].clearSucc(); // performLA is rerun after inserting spill code
             // succ(l) += (l+1)
             if(i < instructions.length - 1)
                 instructions[i].succ(instructions[i+1]);
         }
-        infereLiveness(instructions); //apply rule K2
+        return infereLiveness(instructions, tempCount);
     }
 
-    // Apply liveness inference rule (K2) to instructions until no change occurs.
-    // After saturation all instructions hold their live variables (here: temporary registers).
-    public static void infereLiveness(Instruction[] instructions) {
-        boolean saturated;
-        do {
-            saturated = true;
-            for (Instruction l : instructions) {
-                // live(l',t) + succ(l,l') + !def(l,t) -> live(l,t)
-                for (Instruction l_ : (List<Instruction>) l.getSucc()) {
-                    for (TempReg t : (List<TempReg>) l_.getLive()) {
-                        if (l.isUndef(t) && !l.isLive(t)) { 
-                            saturated = false;
-                            l.live(t);
-                        }
-                    }
-                }
-            }
-        } while (!saturated);
+    // Applies the liveness inference rules (see LivenessProblem) until no change occurs.
+    // The fixpoint is computed on basic blocks, only the live variables at the block ends are kept
+    // (see Liveness), so the analysis takes blocks x temps instead of instructions x temps bits.
+    public static Liveness infereLiveness(Instruction[] instructions, int tempCount) {
+        LivenessProblem problem = new LivenessProblem(instructions, tempCount);
+        ControlFlowGraph cfg = new ControlFlowGraph(instructions);
+        return new Liveness(instructions, cfg, problem, DataflowSolver.solve(cfg, problem));
     }
 
-    // Generates the inference graph out of the liveness information set on an instruction sequence.
-    public static InterferenceGraph generateInterferenceGraph(List<Instruction> instructions, List<TempReg> tempRegisters) {
-        // calculate interference
-        for(Instruction ins : instructions) {
-            ins.calculateInterference();
-        }
-
+    // Generates the inference graph of the analyzed instructions. Each block is walked backwards,
+    // updating the live variables in place (live = (live - def) + use), so an instruction costs
+    // time proportional to the variables live at it rather than to the amount of temporary registers.
+    public static InterferenceGraph generateInterferenceGraph(Liveness liveness, List<TempReg> tempRegisters,
+            TargetRegisters registers) {
         // generate a node for each temporary register
         Node[] allNodes = new Node[tempRegisters.size()];
         for(TempReg t : tempRegisters) {
             allNodes[t.id] = new Node(t);
         }
 
-        // initialize adjacency list
-        Set<Integer>[] adjSet = new Set[allNodes.length]; // uses sets to avoid duplicates
-        for(int i = 0; i < adjSet.length; i++) {
-            adjSet[i] = new HashSet<>();
-        }
-
-        // add edges between variables, if their liveness overlaps OR
-        // if one is live and the other one is interfering
-        for(Instruction ins : instructions) {
-            List<TempReg> live = (List<TempReg>) ins.getLive(); // variables that are live in this instruction
-            // get all interfering variables
-            List<TempReg> interfering = ins.getDef();
-            interfering.removeIf(t -> t.interferes());
-            for(int i = 0; i < live.size(); i++) {
-                int node = live.get(i).id;
-                for(int j = 0; j < live.size(); j++) {
-                    if(j != i) adjSet[node].add(live.get(j).id); // add neighbour
+        InterferenceGraph.Builder builder = new InterferenceGraph.Builder(allNodes);
+        LivenessProblem problem = liveness.problem;
+        SparseSet live = new SparseSet(allNodes.length);
+        for(BasicBlock block : liveness.cfg.getBlocks()) {
+            live.clear();
+            liveness.liveOut(block).forEach(live::add);
+            for(int i = block.end - 1; i >= block.start; i--) {
+                Instruction ins = liveness.instructions[i];
+                // a variable defined by an instruction interferes with the variables live after it,
+                // except for the source of a move, which may share its register with the destination (see Coalescer)
+                int moveSource = ins.isMove() ? ((TempReg) ins.getLeft()).id : -1;
+                for(int d = problem.defOffsets[i]; d < problem.defOffsets[i + 1]; d++) {
+                    int def = problem.defs[d];
+                    for(int k = 0; k < live.size(); k++) {
+                        if(live.get(k) != moveSource) builder.addEdge(def, live.get(k));
+                    }
+                    for(int e = problem.defOffsets[i]; e < d; e++) {
+                        builder.addEdge(def, problem.defs[e]); // written at the same time
+                    }
                 }
-                for(int j = 0; j < interfering.size(); j++) {
-                    int interferingNode = interfering.get(j).id;
-                    if(interferingNode != node) adjSet[node].add(interferingNode); // add interfering node
+                forbid(live, ins.getClobbered(), allNodes, registers.available());
+                for(int d = problem.defOffsets[i]; d < problem.defOffsets[i + 1]; d++) live.remove(problem.defs[d]);
+                for(int u = problem.useOffsets[i]; u < problem.useOffsets[i + 1]; u++) live.add(problem.uses[u]);
+                forbid(live, ins.getImplicitlyUsed(), allNodes, registers.available());
+            }
+            // variables live at the entry (i.e. used without definition) are not covered by a def above
+            if(block.getPredecessors().isEmpty()) {
+                for(int a = 0; a < live.size(); a++) {
+                    for(int b = a + 1; b < live.size(); b++) builder.addEdge(live.get(a), live.get(b));
                 }
             }
-
         }
 
-        return new InterferenceGraph(adjSet, allNodes);
+        return builder.build();
+    }
+
+    // A temporary register that is live after an instruction overwriting a fixed register
+    // (see Instruction.getClobbered) must not be assigned to that register.
+    // Likewise, a temporary register live before an instruction implicitly reading a fixed register
+    // must not be assigned to it, as the register holds another value at that point (e.g. the dividend).
+    private static void forbid(SparseSet temps, List<String> registers, Node[] nodes, List<String> available) {
+        for(String reg : registers) {
+            int index = available.indexOf(reg);
+            if(index == -1) continue; // not allocatable anyway (e.g. %rsp)
+            for(int k = 0; k < temps.size(); k++) nodes[temps.get(k)].forbidRegister(index);
+        }
     }
 
-}
\ No newline at end of file
+}
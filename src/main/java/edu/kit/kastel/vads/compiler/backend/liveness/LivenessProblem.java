@@ -0,0 +1,62 @@
+package edu.kit.kastel.vads.compiler.backend.liveness;
+
+import java.util.List;
+
+import edu.kit.kastel.vads.compiler.backend.dataflow.BitVector;
+import edu.kit.kastel.vads.compiler.backend.dataflow.DataflowProblem;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+
+// Liveness of temporary registers as backward dataflow problem:
+//   use(l,t) -> live(l,t)                                (K1)
+//   live(l',t) + succ(l,l') + !def(l,t) -> live(l,t)     (K2)
+class LivenessProblem implements DataflowProblem {
+
+    private final int tempCount;
+    // Register ids used and defined by the instructions, stored flat: instruction i uses
+    // uses[useOffsets[i]] to uses[useOffsets[i + 1] - 1] (likewise for defs)
+    // (read directly when walking the blocks, see LivenessAnalyzer.generateInterferenceGraph)
+    final int[] useOffsets, uses, defOffsets, defs;
+
+    LivenessProblem(Instruction[] instructions, int tempCount) {
+        this.tempCount = tempCount;
+        this.useOffsets = new int[instructions.length + 1];
+        this.defOffsets = new int[instructions.length + 1];
+        for (int i = 0; i < instructions.length; i++) {
+            this.useOffsets[i + 1] = this.useOffsets[i] + instructions[i].getUse().size();
+            this.defOffsets[i + 1] = this.defOffsets[i] + instructions[i].getDef().size();
+        }
+        this.uses = new int[this.useOffsets[instructions.length]];
+        this.defs = new int[this.defOffsets[instructions.length]];
+        for (int i = 0; i < instructions.length; i++) {
+            int u = this.useOffsets[i], d = this.defOffsets[i];
+            for (TempReg t : (List<TempReg>) instructions[i].getUse()) this.uses[u++] = t.id;
+            for (TempReg t : (List<TempReg>) instructions[i].getDef()) this.defs[d++] = t.id;
+        }
+    }
+
+    @Override
+    public Direction direction() {
+        return Direction.BACKWARD;
+    }
+
+    @Override
+    public Meet meet() {
+        return Meet.UNION;
+    }
+
+    @Override
+    public int universeSize() {
+        return this.tempCount;
+    }
+
+    @Override
+    public void gen(int instruction, BitVector gen) {
+        for (int k = this.useOffsets[instruction]; k < this.useOffsets[instruction + 1]; k++) gen.add(this.uses[k]);
+    }
+
+    @Override
+    public void kill(int instruction, BitVector kill) {
+        for (int k = this.defOffsets[instruction]; k < this.defOffsets[instruction + 1]; k++) kill.add(this.defs[k]);
+    }
+}
@@ -2,24 +2,16 @@ package edu.kit.kastel.vads.compiler.backend.liveness;
 
 import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
 
-public class Node implements Comparable<Node> {
+public class Node {
 
-    private int wt = 0;
     private int color = -1; //color used for register allocation
+    private long forbiddenRegs = 0; //bitmask of registers (index in TargetRegisters.available) this node must not be assigned to
     public final TempReg reg; //associated register
 
     public Node(TempReg associatedReg) {
         this.reg = associatedReg;
     }
 
-    public int getWeight() {
-        return this.wt;
-    }
-
-    public void incrWt() {
-        this.wt++;
-    }
-
     public void setColor(int color){
         this.color = color;
     }
@@ -28,15 +20,16 @@ public class Node implements Comparable<Node> {
         return this.color;
     }
 
-    public boolean isColored() {
-        return (this.color != -1);
+    public void forbidRegister(int index) {
+        this.forbiddenRegs |= 1L << index;
+    }
+
+    public long getForbiddenRegs() {
+        return this.forbiddenRegs;
     }
 
-    @Override
-    public int compareTo(Node o) {
-        if (this.wt > o.wt) return 1;
-        else if(this.wt == o.wt) return 0;
-        else return -1;
+    public boolean isColored() {
+        return (this.color != -1);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package edu.kit.kastel.vads.compiler.backend.liveness;
+
+// Set of ids 0..size-1 with constant time add, remove and contains, whose members can be iterated
+// in time proportional to their amount (Briggs and Torczon): the members are stored densely in
+// members[0, count), index[id] is the position of id in members if it is contained.
+final class SparseSet {
+
+    private final int[] members;
+    private final int[] index;
+    private int count;
+
+    SparseSet(int size) {
+        this.members = new int[size];
+        this.index = new int[size];
+    }
+
+    boolean contains(int id) {
+        int i = this.index[id];
+        return i < this.count && this.members[i] == id;
+    }
+
+    void add(int id) {
+        if (contains(id)) return;
+        this.index[id] = this.count;
+        this.members[this.count++] = id;
+    }
+
+    void remove(int id) {
+        if (!contains(id)) return;
+        int last = this.members[--this.count];
+        this.members[this.index[id]] = last;
+        this.index[last] = this.index[id];
+    }
+
+    void clear() {
+        this.count = 0;
+    }
+
+    int size() {
+        return this.count;
+    }
+
+    // the i-th member, 0 <= i < size() (the order changes when removing members)
+    int get(int i) {
+        return this.members[i];
+    }
+}
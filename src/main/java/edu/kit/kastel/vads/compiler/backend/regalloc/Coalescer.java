@@ -0,0 +1,76 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+import edu.kit.kastel.vads.compiler.backend.liveness.InterferenceGraph;
+
+public class Coalescer {
+
+    // Merges the source and destination of moves, if they do not interfere and the merge
+    // is conservative (Briggs): the merged node has less than K neighbours of degree >= K,
+    // K being the amount of available registers, so it stays colorable with K registers.
+    // Returns an interference graph on which the merged nodes share a representative.
+    // Moves between merged nodes get the same location and can be removed (see Instruction.isRedundantMove).
+    public static InterferenceGraph coalesce(InterferenceGraph graph, List<Instruction> instructions, int k) {
+        int n = graph.nodes.length;
+        int[] parent = new int[n];
+        int[][] adjacency = new int[n][]; // neighbours of each representative (may contain merged nodes)
+        int[] stamp = new int[n];
+        int generation = 0;
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            adjacency[v] = Arrays.copyOfRange(graph.neighbours, graph.offsets[v], graph.offsets[v + 1]);
+        }
+
+        for (Instruction ins : instructions) {
+            if (!ins.isMove()) continue;
+            int a = find(parent, ((TempReg) ins.getLeft()).id);
+            int b = find(parent, ((TempReg) ins.getRight()).id);
+            if (a == b || interferes(parent, adjacency, a, b)) continue;
+
+            // collect the distinct neighbours of the merged node
+            generation++;
+            int[] merged = new int[adjacency[a].length + adjacency[b].length];
+            int size = 0, significant = 0;
+            for (int[] list : new int[][] {adjacency[a], adjacency[b]}) {
+                for (int x : list) {
+                    int r = find(parent, x);
+                    if (stamp[r] == generation) continue;
+                    stamp[r] = generation;
+                    merged[size++] = r;
+                    if (adjacency[r].length >= k) significant++;
+                }
+            }
+            if (significant >= k) continue; // merge could make the graph uncolorable
+
+            parent[b] = a;
+            adjacency[a] = Arrays.copyOf(merged, size);
+            adjacency[b] = new int[0];
+        }
+
+        for (int v = 0; v < n; v++) {
+            parent[v] = find(parent, v); // point every node directly to its representative
+        }
+        return graph.coalesced(parent);
+    }
+
+    private static boolean interferes(int[] parent, int[][] adjacency, int a, int b) {
+        int[] smaller = adjacency[a].length <= adjacency[b].length ? adjacency[a] : adjacency[b];
+        int other = smaller == adjacency[a] ? b : a;
+        for (int x : smaller) {
+            if (find(parent, x) == other) return true;
+        }
+        return false;
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]]; // path halving
+            v = parent[v];
+        }
+        return v;
+    }
+}
@@ -1,87 +1,193 @@
 package edu.kit.kastel.vads.compiler.backend.regalloc;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
 
+import edu.kit.kastel.vads.compiler.CompilationContext;
+import edu.kit.kastel.vads.compiler.PassTimer;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.InstructionSelector;
 import edu.kit.kastel.vads.compiler.backend.liveness.InterferenceGraph;
+import edu.kit.kastel.vads.compiler.backend.liveness.Liveness;
+import edu.kit.kastel.vads.compiler.backend.liveness.LivenessAnalyzer;
 import edu.kit.kastel.vads.compiler.backend.liveness.Node;
 
 public class RegisterAllocator {
 
-    public static List<String> AVAILABLE_REGS = Arrays.asList("r12", "r13", "r14", "r15");
+    // Upper bound of allocation rounds, remaining spilled temps are handled by reloading
+    // them into the spilling registers on every access (see Instruction.emit)
+    private static final int MAX_ROUNDS = 8;
 
-    public static String SPILLING_REG_1 = "r10";
-    public static String SPILLING_REG_2 = "r11";
+    // Allocates registers for all temporary registers used by the instructions. Temps that
+    // do not fit into registers get a stack slot; the instructions are rewritten to access
+    // them through short-lived temps (see SpillCodeInserter) and allocation is repeated
+    // until no further temps need to be spilled.
+    // Returns the amount of used stack slots.
+    // Liveness analysis and allocation are measured as separate passes, summed over all rounds.
+    public static int allocate(List<Instruction> instructions, InstructionSelector is, CompilationContext context) {
+        TargetRegisters registers = context.registers();
+        PassTimer timer = context.timer();
+        SpillCodeInserter spillCodeInserter = new SpillCodeInserter(is::newTempReg);
+        int stackSlots = 0;
+        for(int round = 1; ; round++) {
+            double[] spillCosts;
+            InterferenceGraph interferenceGraph;
+            try (var _ = timer.start(PassTimer.Pass.LIVENESS)) {
+                Instruction[] instructionArray = instructions.toArray(Instruction[]::new);
+                Liveness liveness = LivenessAnalyzer.performLA(instructionArray, is.ALL_TREGS.size());
+                spillCosts = SpillCosts.estimate(instructionArray, is.ALL_TREGS.size());
+                interferenceGraph = LivenessAnalyzer.generateInterferenceGraph(liveness, is.ALL_TREGS, registers);
+                timer.count(PassTimer.Pass.LIVENESS, "interference edges", interferenceGraph.edgeCount());
+            }
+            try (var _ = timer.start(PassTimer.Pass.REGISTER_ALLOCATION)) {
+                interferenceGraph = Coalescer.coalesce(interferenceGraph, instructions, registers.available().size());
+                int spilled = performRegisterAllocation(interferenceGraph, spillCosts, stackSlots, registers);
+                stackSlots += spilled;
+                timer.count(PassTimer.Pass.REGISTER_ALLOCATION, "rounds", 1);
+                timer.count(PassTimer.Pass.REGISTER_ALLOCATION, "spills", spilled);
+                if(spilled == 0 || round == MAX_ROUNDS) break;
+                spillCodeInserter.rewrite(instructions);
+            }
+        }
+        instructions.removeIf(Instruction::isRedundantMove);
+        return stackSlots;
+    }
 
     // Sets concrete registers / stack positions at the TempRegs.
-    // Returns the amount of spilled registers. 
-    public static int performRegisterAllocation(InterferenceGraph graph) {
+    // Temps that already got a stack slot in a previous round keep it
+    // (they are no longer accessed after inserting spill code), new stack slots
+    // are placed after the given amount of already used slots.
+    // Returns the amount of newly spilled registers. 
+    public static int performRegisterAllocation(InterferenceGraph graph, double[] spillCosts, int usedStackSlots,
+            TargetRegisters registers) {
+        List<String> available = registers.available();
         int highestColor = applyGreedyColoring(graph, getSEOrdering(graph));
         if(highestColor == -1) return 0; // no registers needed
-        // map available registers to lowest colors, then spill to stack
-        int stackOffset = -8;
+        // coalesced nodes take the color of their representative
+        for(int v = 0; v < graph.nodes.length; v++) {
+            graph.nodes[v].setColor(graph.nodes[graph.representative(v)].getColor());
+        }
+        // all nodes of one color share a location, so the spill cost of a color is the sum of its nodes' costs
+        int colors = highestColor + 1;
+        double[] colorCost = new double[colors];
+        // registers a color must not use, because one of its nodes is live while they are overwritten
+        long[] colorForbidden = new long[colors];
+        for(Node node : graph.nodes) {
+            colorCost[node.getColor()] += spillCosts[node.reg.id];
+            colorForbidden[node.getColor()] |= node.getForbiddenRegs();
+        }
+        // map available registers to the most expensive colors, then spill to stack
+        Integer[] byCost = new Integer[colors];
+        for(int i = 0; i < colors; i++) byCost[i] = i;
+        Arrays.sort(byCost, (a, b) -> Double.compare(colorCost[b], colorCost[a])); // stable, ties keep color order
+        // stack slots lie within the area reserved by the function prologue, i.e. above %rsp
+        int stackOffset = 8 * usedStackSlots;
         int amountSpilled = 0;
-        Register[] colorToReg = new Register[highestColor + 1];
-        for(int i = 0; i <= highestColor; i++){
-            if(i < AVAILABLE_REGS.size()) {
-                colorToReg[i] = new Register(AVAILABLE_REGS.get(i));
+        long usedRegs = 0;
+        Register[] colorToReg = new Register[colors];
+        for(int rank = 0; rank < colors; rank++){
+            int color = byCost[rank];
+            int reg = 0; // first register that is neither used nor forbidden
+            while(reg < available.size() && ((usedRegs | colorForbidden[color]) & (1L << reg)) != 0) reg++;
+            if(reg < available.size()) {
+                usedRegs |= 1L << reg;
+                colorToReg[color] = new Register(available.get(reg));
             } else {
-                colorToReg[i] = new Register(stackOffset);
-                stackOffset -= 8;
+                colorToReg[color] = new Register(stackOffset);
+                stackOffset += 8;
                 amountSpilled++;
             }
         }
         // set colors at nodes
         for(Node node : graph.nodes) {
-            node.reg.setRegister(colorToReg[node.getColor()]);
+            if(!node.reg.hasStackSlot()) node.reg.setRegister(colorToReg[node.getColor()]);
         }
         return amountSpilled;
     }
 
     // Calculates a simplical (S) elimination (E) ordering for 
     // a given intereference graph via maximum cardinality search.
+    // Nodes are kept in buckets by weight (doubly linked lists, indexed by weight),
+    // so picking a node with maximum weight and incrementing the weights of its
+    // neighbours is constant time, resulting in O(V+E) overall.
     private static Node[] getSEOrdering(InterferenceGraph graph) {
-        Node[] ordering = new Node[graph.nodes.length];
-        // use priority queue to easily pop element with highest weight
-        PriorityQueue<Node> priorityQ = new PriorityQueue<>();
-        priorityQ.addAll(List.of(graph.nodes));
+        int n = graph.nodes.length;
+        Node[] ordering = new Node[n];
+        if(n == 0) return ordering;
+        int[] weight = new int[n];
+        int[] next = new int[n], prev = new int[n];
+        int[] head = new int[n]; // first node of each bucket, a node's weight is always < n
+        boolean[] ordered = new boolean[n];
+        Arrays.fill(head, -1);
+        // initially all nodes are in bucket 0
+        for(int v = n - 1; v >= 0; v--) {
+            prev[v] = -1;
+            next[v] = head[0];
+            if(head[0] != -1) prev[head[0]] = v;
+            head[0] = v;
+        }
+        int maxWeight = 0;
         // extract ordering
-        for(int i = 0; i < graph.nodes.length; i++) {
-            Node v = priorityQ.poll(); // node with highest weight
-            ordering[i] = v;
-            for(int neighbour : graph.adjacencyList[v.reg.id]) {
-                graph.nodes[neighbour].incrWt(); //wt(neighbour)++
+        for(int i = 0; i < n; i++) {
+            while(head[maxWeight] == -1) maxWeight--;
+            int v = head[maxWeight]; // node with highest weight
+            removeFromBucket(v, weight, next, prev, head);
+            ordered[v] = true;
+            ordering[i] = graph.nodes[v];
+            for(int k = graph.offsets[v]; k < graph.offsets[v + 1]; k++) {
+                int neighbour = graph.neighbours[k];
+                if(ordered[neighbour]) continue;
+                //wt(neighbour)++
+                removeFromBucket(neighbour, weight, next, prev, head);
+                int wt = ++weight[neighbour];
+                prev[neighbour] = -1;
+                next[neighbour] = head[wt];
+                if(head[wt] != -1) prev[head[wt]] = neighbour;
+                head[wt] = neighbour;
+                maxWeight = Math.max(maxWeight, wt);
             }
         }
         return ordering;
     }
 
+    private static void removeFromBucket(int v, int[] weight, int[] next, int[] prev, int[] head) {
+        if(prev[v] != -1) next[prev[v]] = next[v];
+        else head[weight[v]] = next[v];
+        if(next[v] != -1) prev[next[v]] = prev[v];
+    }
+
     // Applies greedy coloring to a list of nodes whose order is a 
     // simplicial elimination ordering
     private static int applyGreedyColoring(InterferenceGraph graph, Node[] orderedNodes) {
         int highestUsedColor = -1;
+        // a node never needs a color higher than its degree, so colors are bounded by the max degree.
+        // usedColorStamp[c] == stamp marks color c as used by a neighbour of the current node,
+        // incrementing the stamp clears all marks without touching the array.
+        int maxDegree = 0;
+        for (int v = 0; v < graph.nodes.length; v++) {
+            maxDegree = Math.max(maxDegree, graph.degree(v));
+        }
+        int[] usedColorStamp = new int[maxDegree + 1];
+        int stamp = 0;
         for (Node node : orderedNodes) {
-            int color = getLowestFreeColor(graph, node);
+            int color = getLowestFreeColor(graph, node, usedColorStamp, ++stamp);
             highestUsedColor = Math.max(highestUsedColor, color);
             node.setColor(color);
         }
         return highestUsedColor;
     }
 
-    private static int getLowestFreeColor(InterferenceGraph graph, Node node) {
-        // get all used colors among neighbours of provided node
-        Set<Integer> neighbours = graph.adjacencyList[node.reg.id]; 
-        Set<Integer> usedColors = new HashSet<>();
-        for(int neighbour : neighbours) {
-            Node n = graph.nodes[neighbour];
-            if(n.isColored()) usedColors.add(n.getColor());
+    // Colors are handed out from 0 upwards, lower colors are mapped to the preferred registers.
+    private static int getLowestFreeColor(InterferenceGraph graph, Node node, int[] usedColorStamp, int stamp) {
+        // mark all used colors among neighbours of provided node
+        int v = node.reg.id;
+        for(int k = graph.offsets[v]; k < graph.offsets[v + 1]; k++) {
+            int color = graph.nodes[graph.neighbours[k]].getColor();
+            if(color != -1 && color < usedColorStamp.length) usedColorStamp[color] = stamp;
         }
         // calculate lowest unused color (starting from 0)
         int lowestFreeColor = 0;
-        while(usedColors.contains(lowestFreeColor)) lowestFreeColor++;
+        while(lowestFreeColor < usedColorStamp.length && usedColorStamp[lowestFreeColor] == stamp) lowestFreeColor++;
         return lowestFreeColor;
     }
 }
@@ -0,0 +1,122 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import edu.kit.kastel.vads.compiler.backend.dataflow.BasicBlock;
+import edu.kit.kastel.vads.compiler.backend.dataflow.ControlFlowGraph;
+import edu.kit.kastel.vads.compiler.backend.instrsel.FixReg;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Immediate;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Opcode;
+import edu.kit.kastel.vads.compiler.backend.instrsel.StackSlot;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+
+// Rewrites an instruction sequence so that temporary registers with a stack slot are no longer
+// accessed directly: they are loaded into a new temporary register before their first use in a
+// basic block and stored back after each def. This splits the live range of a spilled value at
+// block boundaries (and thereby around loops), while the value stays in a register within a block.
+// Where x86 allows a memory operand, the stack slot is accessed directly instead (see Opcode.memorySource).
+public class SpillCodeInserter {
+
+    private final Supplier<TempReg> newTempReg;
+    // temporary registers created by this class, their live ranges are already split
+    private final Set<TempReg> spillTemps = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public SpillCodeInserter(Supplier<TempReg> newTempReg) {
+        this.newTempReg = newTempReg;
+    }
+
+    // Expects the successors of the instructions to be set (see LivenessAnalyzer.performLA).
+    public void rewrite(List<Instruction> instructions) {
+        Instruction[] array = instructions.toArray(Instruction[]::new);
+        ControlFlowGraph cfg = new ControlFlowGraph(array);
+        List<Instruction> result = new ArrayList<>(array.length);
+        // current register holding the value of a spilled temporary register within the block
+        IdentityHashMap<TempReg, TempReg> current = new IdentityHashMap<>();
+
+        for (BasicBlock block : cfg.getBlocks()) {
+            current.clear();
+            for (int i = block.start; i < block.end; i++) {
+                Instruction ins = array[i];
+                List<TempReg> used = spilled((List<TempReg>) ins.getUse());
+                List<TempReg> defined = spilled((List<TempReg>) ins.getDef());
+                for (TempReg t : used) {
+                    TempReg reg = current.get(t);
+                    if (reg == null && canFoldUse(ins, t)) {
+                        ins.foldStackSlot(t, slot(t));
+                        continue;
+                    }
+                    // a spill temp that was spilled again gets loaded right before each use
+                    if (reg == null || this.spillTemps.contains(t)) {
+                        reg = newSpillTemp();
+                        result.add(new Instruction(ins.getLabel(), Opcode.MOV, slot(t), reg));
+                        current.put(t, reg);
+                    }
+                    ins.replace(t, reg);
+                }
+                List<Instruction> stores = new ArrayList<>();
+                for (TempReg t : defined) {
+                    if (!used.contains(t) && canFoldDef(ins, t)) {
+                        ins.foldStackSlot(t, slot(t));
+                        current.remove(t); // the slot now holds a new value
+                        continue;
+                    }
+                    TempReg reg = used.contains(t) ? current.get(t) : newSpillTemp();
+                    ins.replace(t, reg);
+                    current.put(t, reg);
+                    stores.add(new Instruction(ins.getLabel(), Opcode.MOV, reg, slot(t)));
+                }
+                result.add(ins);
+                result.addAll(stores);
+            }
+        }
+
+        instructions.clear();
+        instructions.addAll(result);
+    }
+
+    // Whether the instruction can read the spilled temp directly from its stack slot.
+    private static boolean canFoldUse(Instruction ins, TempReg t) {
+        if (((List<TempReg>) ins.getDef()).contains(t)) return false; // read-modify-write needs a register
+        if (!ins.getOpcode().memorySource || ins.getLeft() != t) return false;
+        if (ins.getOpcode().operandCount == 1) return true; // e.g. idivl m32
+        return ins.getRight() != t
+            && (ins.getRight() instanceof FixReg || ins.getRight() instanceof TempReg); // spilled temps there are replaced by registers
+    }
+
+    // Whether the instruction can write the spilled temp directly to its stack slot.
+    private static boolean canFoldDef(Instruction ins, TempReg t) {
+        return ins.getOpcode() == Opcode.MOV
+            && ins.getRight() == t
+            && (isRegister(ins.getLeft()) || ins.getLeft() instanceof Immediate);
+    }
+
+    // whether the parameter will be printed as register
+    private static boolean isRegister(Object parameter) {
+        return parameter instanceof FixReg || parameter instanceof TempReg t && !t.hasStackSlot();
+    }
+
+    private TempReg newSpillTemp() {
+        TempReg t = this.newTempReg.get();
+        this.spillTemps.add(t);
+        return t;
+    }
+
+    // distinct temporary registers with a stack slot
+    private static List<TempReg> spilled(List<TempReg> temps) {
+        List<TempReg> spilled = new ArrayList<>();
+        for (TempReg t : temps) {
+            if (t.hasStackSlot() && !spilled.contains(t)) spilled.add(t);
+        }
+        return spilled;
+    }
+
+    private static StackSlot slot(TempReg t) {
+        return new StackSlot(t.register.getStackOffset());
+    }
+}
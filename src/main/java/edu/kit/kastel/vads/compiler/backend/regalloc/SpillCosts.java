@@ -0,0 +1,32 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import java.util.List;
+
+import edu.kit.kastel.vads.compiler.backend.dataflow.BasicBlock;
+import edu.kit.kastel.vads.compiler.backend.dataflow.ControlFlowGraph;
+import edu.kit.kastel.vads.compiler.backend.dataflow.LoopNesting;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+
+public class SpillCosts {
+
+    // Assumed amount of iterations per loop, i.e. an access at loop depth d is weighted by LOOP_WEIGHT^d.
+    private static final double LOOP_WEIGHT = 10;
+
+    // Estimates for each temporary register (at index of its id) how expensive it is to keep it on the stack:
+    // every use and def costs one memory access, weighted by the loop depth of the instruction.
+    // Expects the successors of the instructions to be set (see LivenessAnalyzer.performLA).
+    public static double[] estimate(Instruction[] instructions, int tempCount) {
+        double[] costs = new double[tempCount];
+        ControlFlowGraph cfg = new ControlFlowGraph(instructions);
+        LoopNesting loops = new LoopNesting(cfg);
+        for (BasicBlock block : cfg.getBlocks()) {
+            double weight = Math.pow(LOOP_WEIGHT, loops.depth(block));
+            for (int i = block.start; i < block.end; i++) {
+                for (TempReg t : (List<TempReg>) instructions[i].getUse()) costs[t.id] += weight;
+                for (TempReg t : (List<TempReg>) instructions[i].getDef()) costs[t.id] += weight;
+            }
+        }
+        return costs;
+    }
+}
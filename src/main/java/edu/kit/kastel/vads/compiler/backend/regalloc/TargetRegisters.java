@@ -0,0 +1,20 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import java.util.List;
+
+// The registers of the target machine (32 bit names) as seen by the register allocator.
+// available: the registers temps can be assigned to, by preference
+// spilling1, spilling2: reserved for temps that are accessed on the stack without spill code
+public record TargetRegisters(List<String> available, String spilling1, String spilling2) {
+
+    // All general purpose registers except %rsp and the spilling registers, by preference.
+    // %eax and %edx come last, as they are overwritten by division and the return value.
+    // _main is only called by our own entry stub, so callee-saved registers need no saving.
+    public static final TargetRegisters X86_64 = new TargetRegisters(
+        List.of("ecx", "esi", "edi", "r8d", "r9d", "ebx", "r12d", "r13d", "r14d", "r15d", "ebp", "edx", "eax"),
+        "r10d", "r11d");
+
+    public TargetRegisters {
+        available = List.copyOf(available);
+    }
+}
@@ -2,7 +2,11 @@ package edu.kit.kastel.vads.compiler.ir;
 
 import edu.kit.kastel.vads.compiler.ir.node.Block;
 import edu.kit.kastel.vads.compiler.ir.node.Node;
+import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -14,6 +18,8 @@ public class IrGraph {
     private final Block startBlock;
     private final Block endBlock;
     private final String name;
+    // debug info attached to newly created nodes (set during construction of the graph)
+    private DebugInfo currentDebugInfo = DebugInfo.NoInfo.INSTANCE;
 
     public IrGraph(String name) {
         this.name = name;
@@ -54,8 +60,33 @@ public class IrGraph {
         return this.endBlock;
     }
 
+    /// {@return the debug info for nodes created now}
+    public DebugInfo currentDebugInfo() {
+        return this.currentDebugInfo;
+    }
+
+    public void setCurrentDebugInfo(DebugInfo debugInfo) {
+        this.currentDebugInfo = debugInfo;
+    }
+
     /// {@return the name of this graph}
     public String name() {
         return name;
     }
+
+    /// {@return the number of nodes reachable from the end block, including the blocks}
+    public int nodeCount() {
+        Set<Node> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Node> worklist = new ArrayDeque<>();
+        seen.add(this.endBlock);
+        worklist.push(this.endBlock);
+        while (!worklist.isEmpty()) {
+            for (Node predecessor : worklist.pop().predecessors()) {
+                if (seen.add(predecessor)) {
+                    worklist.push(predecessor);
+                }
+            }
+        }
+        return seen.size();
+    }
 }
@@ -6,7 +6,6 @@ import java.util.function.BinaryOperator;
 import edu.kit.kastel.vads.compiler.ir.node.*;
 import edu.kit.kastel.vads.compiler.ir.optimize.Optimizer;
 import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
 import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
 import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
@@ -51,7 +50,7 @@ public class SsaTranslation {
     }
 
     public IrGraph translate() {
-        var visitor = new SsaTranslationVisitor();
+        var visitor = new SsaTranslationVisitor(this.constructor.graph());
         this.function.accept(visitor, this);
         return this.constructor.graph();
     }
@@ -75,13 +74,19 @@ public class SsaTranslation {
 
         private final Deque<DebugInfo> debugStack = new ArrayDeque<>();
 
+        private final IrGraph graph;
+
+        SsaTranslationVisitor(IrGraph graph) {
+            this.graph = graph;
+        }
+
         private void pushSpan(Tree tree) {
-            this.debugStack.push(DebugInfoHelper.getDebugInfo());
-            DebugInfoHelper.setDebugInfo(new DebugInfo.SourceInfo(tree.span()));
+            this.debugStack.push(this.graph.currentDebugInfo());
+            this.graph.setCurrentDebugInfo(new DebugInfo.SourceInfo(tree.span()));
         }
 
         private void popSpan() {
-            DebugInfoHelper.setDebugInfo(this.debugStack.pop());
+            this.graph.setCurrentDebugInfo(this.debugStack.pop());
         }
 
         @Override
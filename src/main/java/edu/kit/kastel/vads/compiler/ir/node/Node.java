@@ -3,10 +3,8 @@ package edu.kit.kastel.vads.compiler.ir.node;
 import java.util.ArrayList;
 import java.util.List;
 
-import edu.kit.kastel.vads.compiler.backend.instrsel.InstructionInfo;
 import edu.kit.kastel.vads.compiler.ir.IrGraph;
 import edu.kit.kastel.vads.compiler.ir.util.DebugInfo;
-import edu.kit.kastel.vads.compiler.ir.util.DebugInfoHelper;
 
 /// The base class for all nodes.
 public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNode, ConstBoolNode, 
@@ -16,7 +14,6 @@ public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNo
     private final Block block;
     private final List<Node> predecessors = new ArrayList<>();
     private final DebugInfo debugInfo;
-    public final InstructionInfo instructionInfo = new InstructionInfo();
 
     protected Node(Block block, Node... predecessors) {
         this.graph = block.graph();
@@ -25,7 +22,7 @@ public sealed abstract class Node permits BinaryOperationNode, Block, ConstIntNo
         for (Node predecessor : predecessors) {
             graph.registerSuccessor(predecessor, this);
         }
-        this.debugInfo = DebugInfoHelper.getDebugInfo();
+        this.debugInfo = this.graph.currentDebugInfo();
     }
 
     protected Node(IrGraph graph) {
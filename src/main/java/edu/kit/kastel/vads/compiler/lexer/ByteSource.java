@@ -0,0 +1,37 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// Source code given as bytes, e.g. a memory mapped file, read without decoding it into a String first.
+// Each byte is one character; the language is ASCII, other bytes end up in error tokens.
+// Sub sequences share the buffer, only toString copies the characters.
+final class ByteSource implements CharSequence {
+    private final ByteBuffer bytes;
+
+    ByteSource(ByteBuffer bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public int length() {
+        return this.bytes.limit();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (this.bytes.get(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new ByteSource(this.bytes.slice(start, end - start));
+    }
+
+    @Override
+    public String toString() {
+        byte[] copy = new byte[length()];
+        this.bytes.get(0, copy);
+        return new String(copy, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,59 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+// Turns ranges of the source into strings, materializing each distinct text only once:
+// later occurrences are looked up by hashing and comparing the characters in place.
+// Open addressing with linear probing, the table is at most half full.
+final class Interner {
+    private String[] table = new String[256];
+    private int size;
+
+    String intern(CharSequence source, int start, int end) {
+        // same hash as String.hashCode, so it can be compared with the hash cached by the strings
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        int mask = this.table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            String text = this.table[slot];
+            if (text == null) {
+                text = source.subSequence(start, end).toString();
+                this.table[slot] = text;
+                if (++this.size * 2 > this.table.length) {
+                    grow();
+                }
+                return text;
+            }
+            if (text.hashCode() == hash && equals(text, source, start, end)) {
+                return text;
+            }
+        }
+    }
+
+    private static boolean equals(String text, CharSequence source, int start, int end) {
+        if (text.length() != end - start) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != source.charAt(start + i)) return false;
+        }
+        return true;
+    }
+
+    private void grow() {
+        String[] old = this.table;
+        this.table = new String[old.length * 2];
+        int mask = this.table.length - 1;
+        for (String text : old) {
+            if (text == null) continue;
+            int slot = spread(text.hashCode()) & mask;
+            while (this.table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            this.table[slot] = text;
+        }
+    }
+
+    // mixes the high bits into the low ones used for the slot
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,63 @@
+package edu.kit.kastel.vads.compiler.lexer;
+
+import java.util.Arrays;
+
+import org.jspecify.annotations.Nullable;
+
+// Classifies identifiers as keywords directly on the source, without creating a string.
+// The keywords are grouped by length and first character, which leaves at most two candidates
+// (struct and string) to compare character by character.
+final class KeywordTable {
+    private static final int MAX_LENGTH;
+    private static final KeywordType[][] CANDIDATES;
+
+    static {
+        int maxLength = 0;
+        for (KeywordType type : KeywordType.values()) {
+            maxLength = Math.max(maxLength, type.keyword().length());
+        }
+        MAX_LENGTH = maxLength;
+        CANDIDATES = new KeywordType[(MAX_LENGTH + 1) * 128][];
+        for (KeywordType type : KeywordType.values()) {
+            int slot = slot(type.keyword().length(), type.keyword().charAt(0));
+            KeywordType[] candidates = CANDIDATES[slot];
+            if (candidates == null) {
+                CANDIDATES[slot] = new KeywordType[] {type};
+            } else {
+                candidates = Arrays.copyOf(candidates, candidates.length + 1);
+                candidates[candidates.length - 1] = type;
+                CANDIDATES[slot] = candidates;
+            }
+        }
+    }
+
+    private KeywordTable() {
+    }
+
+    // the keyword spelled by source[start, end), or null for any other identifier
+    static @Nullable KeywordType lookup(CharSequence source, int start, int end) {
+        int length = end - start;
+        char first = source.charAt(start);
+        if (length > MAX_LENGTH || first >= 128) return null;
+        KeywordType[] candidates = CANDIDATES[slot(length, first)];
+        if (candidates == null) return null;
+        for (KeywordType candidate : candidates) {
+            if (matches(candidate.keyword(), source, start)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static int slot(int length, char first) {
+        return length * 128 + first;
+    }
+
+    // the first character and the length are equal already
+    private static boolean matches(String keyword, CharSequence source, int start) {
+        for (int i = 1; i < keyword.length(); i++) {
+            if (keyword.charAt(i) != source.charAt(start + i)) return false;
+        }
+        return true;
+    }
+}
@@ -1,5 +1,9 @@
 package edu.kit.kastel.vads.compiler.lexer;
 
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
 
 import org.jspecify.annotations.Nullable;
@@ -10,12 +14,14 @@ import edu.kit.kastel.vads.compiler.lexer.Operator.OperatorType;
 import edu.kit.kastel.vads.compiler.lexer.Separator.SeparatorType;
 
 public class Lexer {
-    private final String source;
+    private final CharSequence source;
+    // texts of identifiers and numbers, so repeated names do not allocate
+    private final Interner texts = new Interner();
     private int pos;
     private int lineStart;
     private int line;
 
-    private Lexer(String source) {
+    private Lexer(CharSequence source) {
         this.source = source;
     }
 
@@ -23,6 +29,15 @@ public class Lexer {
         return new Lexer(source);
     }
 
+    // Lexes the file directly from a memory mapping of it, instead of decoding it into a String first.
+    // Bytes are read as (ASCII) characters; strings are only created for token texts (see Interner).
+    public static Lexer forFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after closing the channel
+            return new Lexer(new ByteSource(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+        }
+    }
+
     public Optional<Token> nextToken() {
         ErrorToken error = skipWhitespace();
         if (error != null) {
@@ -134,7 +149,7 @@ public class Lexer {
             }
         }
         if (!hasMore(0) && currentCommentType == CommentType.MULTI_LINE) {
-            return new ErrorToken(this.source.substring(commentStart), buildSpan(0));
+            return new ErrorToken(this.source.subSequence(commentStart, this.source.length()).toString(), buildSpan(0));
         }
         return null;
     }
@@ -148,14 +163,11 @@ public class Lexer {
         while (hasMore(off) && isIdentifierChar(peek(off))) {
             off++;
         }
-        String id = this.source.substring(this.pos, this.pos + off);
-        // This is a naive solution. Using a better data structure (hashmap, trie) likely performs better.
-        for (KeywordType value : KeywordType.values()) {
-            if (value.keyword().equals(id)) {
-                return new Keyword(value, buildSpan(off));
-            }
+        KeywordType keyword = KeywordTable.lookup(this.source, this.pos, this.pos + off);
+        if (keyword != null) {
+            return new Keyword(keyword, buildSpan(off));
         }
-        return new Identifier(id, buildSpan(off));
+        return new Identifier(this.texts.intern(this.source, this.pos, this.pos + off), buildSpan(off));
     }
 
     private Token lexNumber() {
@@ -166,9 +178,9 @@ public class Lexer {
             }
             if (off == 2) {
                 // 0x without any further hex digits
-                return new ErrorToken(this.source.substring(this.pos, this.pos + off), buildSpan(2));
+                return new ErrorToken(text(off), buildSpan(2));
             }
-            return new NumberLiteral(this.source.substring(this.pos, this.pos + off), 16, buildSpan(off));
+            return new NumberLiteral(this.texts.intern(this.source, this.pos, this.pos + off), 16, buildSpan(off));
         }
         int off = 1;
         while (hasMore(off) && isNumeric(peek(off))) {
@@ -176,9 +188,13 @@ public class Lexer {
         }
         if (peek() == '0' && off > 1) {
             // leading zero is not allowed
-            return new ErrorToken(this.source.substring(this.pos, this.pos + off), buildSpan(off));
+            return new ErrorToken(text(off), buildSpan(off));
         }
-        return new NumberLiteral(this.source.substring(this.pos, this.pos + off), 10, buildSpan(off));
+        return new NumberLiteral(this.texts.intern(this.source, this.pos, this.pos + off), 10, buildSpan(off));
+    }
+
+    private String text(int length) {
+        return this.source.subSequence(this.pos, this.pos + length).toString();
     }
 
     private boolean isHexPrefix() {
@@ -75,6 +75,10 @@ public class TokenSource {
         return token;
     }
 
+    public int size() {
+        return this.tokens.size();
+    }
+
     public boolean hasMore() {
         return this.idx < this.tokens.size();
     }
@@ -0,0 +1,172 @@
+package edu.kit.kastel.vads.compiler.parser.visitor;
+
+import edu.kit.kastel.vads.compiler.parser.ast.AssignmentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BinaryOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BlockTree;
+import edu.kit.kastel.vads.compiler.parser.ast.BooleanTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ConditionalTree;
+import edu.kit.kastel.vads.compiler.parser.ast.DeclarationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ForLoopTree;
+import edu.kit.kastel.vads.compiler.parser.ast.FunctionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.IdentExpressionTree;
+import edu.kit.kastel.vads.compiler.parser.ast.IfStatementTree;
+import edu.kit.kastel.vads.compiler.parser.ast.JumpTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LValueIdentTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LiteralTree;
+import edu.kit.kastel.vads.compiler.parser.ast.LogicalOperationTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NameTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NegateBWTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NegateTree;
+import edu.kit.kastel.vads.compiler.parser.ast.NotTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.parser.ast.ReturnTree;
+import edu.kit.kastel.vads.compiler.parser.ast.Tree;
+import edu.kit.kastel.vads.compiler.parser.ast.TypeTree;
+import edu.kit.kastel.vads.compiler.parser.ast.WhileLoopTree;
+
+/// Counts the nodes of a tree, e.g. for statistics of the parser.
+public final class TreeCounter implements Visitor<Unit, Unit> {
+    private long count;
+
+    private TreeCounter() {
+    }
+
+    /// {@return the number of nodes of the given tree, including itself}
+    public static long count(Tree tree) {
+        TreeCounter counter = new TreeCounter();
+        tree.accept(new RecursivePostorderVisitor<>(counter), Unit.INSTANCE);
+        return counter.count;
+    }
+
+    @Override
+    public Unit visit(AssignmentTree assignmentTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(BinaryOperationTree binaryOperationTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(BlockTree blockTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(DeclarationTree declarationTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(FunctionTree functionTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(IdentExpressionTree identExpressionTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(LiteralTree literalTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(LValueIdentTree lValueIdentTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(NameTree nameTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(NegateTree negateTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(ProgramTree programTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(ReturnTree returnTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(TypeTree typeTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(IfStatementTree ifStatementTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(WhileLoopTree whileLoopTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(ForLoopTree forLoopTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(BooleanTree booleanTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(NegateBWTree negateBWTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(ConditionalTree conditionalTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(JumpTree jumpTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(NotTree notTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+
+    @Override
+    public Unit visit(LogicalOperationTree logicalOperationTree, Unit data) {
+        this.count++;
+        return Unit.INSTANCE;
+    }
+}
@@ -16,35 +16,56 @@ public class SemanticAnalysis {
     }
 
     public void analyze() {
-        //check integer ranges
+        checkIntegerRanges();
+        checkReturns();
+        checkForLoopSteps();
+        checkBreakContinue();
+        checkVariableStatus();
+        checkTypes();
+    }
+
+    // the single passes, package visible for benchmarking them separately
+
+    //check integer ranges
+    void checkIntegerRanges() {
         this.program.accept(new RecursivePostorderVisitor<>(
             new IntegerLiteralRangeAnalysis()), 
             new Namespace<>());
+    }
 
-        //check for return
+    //check for return
+    void checkReturns() {
         this.program.accept(new RecursivePostorderVisitor<>(
             new ReturnAnalysis()), 
             new ArrayList<>());
+    }
 
-        //check that step in for loop is no declaration
+    //check that step in for loop is no declaration
+    void checkForLoopSteps() {
         this.program.accept(new RecursivePostorderVisitor<>(
             new ForLoopStepAnalysis()), 
             new ForLoopStepAnalysis.StepType());
+    }
 
-        //check that all break/continue statements are inside of a loop
+    //check that all break/continue statements are inside of a loop
+    void checkBreakContinue() {
         this.program.accept(new RecursivePostorderVisitor<>(
             new BreakContinueAnalysis()), 
             new BreakContinueAnalysis.JumpUsage());
+    }
 
-        //check variable initialization/declaration
+    //check variable initialization/declaration
+    void checkVariableStatus() {
         this.program.accept(new RecursivePostorderVisitor<>(
             new VariableStatusAnalysis()), 
             initializeNamespaces(
                 VariableStatusAnalysis.getNamespaces(this.program.scopes().size()), 
                 this.program.scopes()
             ));
+    }
 
-        //check types
+    //check types
+    void checkTypes() {
         this.program.accept(new RecursivePostorderVisitor<>(
             new TypeAnalysis()), 
             new TypeContext(
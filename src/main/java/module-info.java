@@ -4,4 +4,6 @@ import org.jspecify.annotations.NullMarked;
 module edu.kit.kastel.vads.compiler {
     requires org.jspecify;
     requires java.xml;
+    requires jdk.jfr;
+    requires jdk.management;
 }
\ No newline at end of file
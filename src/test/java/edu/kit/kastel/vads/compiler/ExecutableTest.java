@@ -0,0 +1,88 @@
+package edu.kit.kastel.vads.compiler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Compiles programs to executables, runs them and checks their exit code (the result of main modulo 256).
+// The expected exit codes are the ones of the same programs compiled by gcc.
+class ExecutableTest {
+
+    // 18 values live at once and used as divisors, more than the 13 available registers
+    static final String SPILLING = """
+        int main() {
+            int a = 3;
+            int b = a * 5 + 1;
+            int c = b - a * 2;
+            int d = c * c + b;
+            int e = d / 3 - a;
+            int f = e % 11 + d;
+            int g = f * 7 - e;
+            int h = g / b + c;
+            int i = h * h - f;
+            int j = i % 97 + g;
+            int k = j - h * 3;
+            int l = k / 5 + i;
+            int m = l * 2 - j;
+            int n = m % 13 + k;
+            int o = n + l / 7;
+            int p = o * 3 - m;
+            int q = p / 2 + n;
+            int r = q - o % 5;
+            int s = a + b * c - d / e + f % g - h * i + j / k - l % m + n * o - p / q + r;
+            return (s + r / a + q % b + p / c + o % d + n / e + m % f + l / g + k % h + j / i) % 256;
+        }
+        """;
+
+    // division and modulo of negative values (cqto, idiv) and immediates of all sizes
+    static final String ARITHMETIC = """
+        int main() {
+            int a = -1000000;
+            int b = 7;
+            int c = a / b;
+            int d = a % b;
+            int e = -a / -13 + c % 100;
+            int f = e * 1000 - d * 3 + 127 - 128;
+            f -= a / (b - 10);
+            f *= -3;
+            f %= 100003;
+            return (f + c + d + e) % 256;
+        }
+        """;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void spilledValuesKeepTheirValues() throws IOException, InterruptedException {
+        assertEquals(243, compileAndRun(SPILLING));
+    }
+
+    @Test
+    void arithmetic() throws IOException, InterruptedException {
+        assertEquals(78, compileAndRun(ARITHMETIC));
+    }
+
+    // Compiles the program with the default options and returns the exit code of the executable.
+    int compileAndRun(String program) throws IOException, InterruptedException {
+        assumeTrue(System.getProperty("os.name").equals("Linux") && System.getProperty("os.arch").equals("amd64"),
+            "the executables are x86-64 Linux programs");
+        Path input = Files.writeString(this.directory.resolve("program.c"), program);
+        Path output = this.directory.resolve("program");
+        ByteArrayOutputStream diagnostics = new ByteArrayOutputStream();
+        int exitCode = Main.compile(Main.Job.besideOutput(input, output),
+            new PrintStream(diagnostics, true, StandardCharsets.UTF_8));
+        assertEquals(0, exitCode, () -> diagnostics.toString(StandardCharsets.UTF_8));
+        Process process = new ProcessBuilder(output.toString()).start();
+        return process.waitFor();
+    }
+}
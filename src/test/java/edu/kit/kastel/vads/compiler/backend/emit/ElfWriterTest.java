@@ -0,0 +1,39 @@
+package edu.kit.kastel.vads.compiler.backend.emit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import edu.kit.kastel.vads.compiler.backend.instrsel.FixReg;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Immediate;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Opcode;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
+
+// Runs executables written by ElfWriter, i.e. checks that Linux loads them and enters the entry stub.
+class ElfWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exitCodeIsTheResultOfMain() throws IOException, InterruptedException {
+        assumeTrue(System.getProperty("os.name").equals("Linux") && System.getProperty("os.arch").equals("amd64"),
+            "the executables are x86-64 Linux programs");
+        X86Encoder encoder = new X86Encoder(TargetRegisters.X86_64);
+        encoder.encodeEntryStub();
+        encoder.encode(new Instruction<>(0, Opcode.MOV, new Immediate(300), new FixReg("eax")));
+        encoder.encode(new Instruction<>(1, Opcode.SUB, new Immediate(258), new FixReg("eax")));
+        encoder.encode(new Instruction<>(2, Opcode.RET));
+        Path executable = this.directory.resolve("program");
+
+        ElfWriter.write(executable, encoder.toByteArray());
+
+        assertEquals(42, new ProcessBuilder(executable.toString()).start().waitFor());
+    }
+}
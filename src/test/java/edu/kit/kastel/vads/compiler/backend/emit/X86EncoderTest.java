@@ -0,0 +1,143 @@
+package edu.kit.kastel.vads.compiler.backend.emit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.kastel.vads.compiler.backend.instrsel.FixReg;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Immediate;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Opcode;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Parameter;
+import edu.kit.kastel.vads.compiler.backend.instrsel.StackSlot;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+import edu.kit.kastel.vads.compiler.backend.regalloc.Register;
+import edu.kit.kastel.vads.compiler.backend.regalloc.TargetRegisters;
+
+// Compares the encoded instructions with the encodings of GNU as (objdump -d).
+// Where the encoder picks another valid encoding than as, this is noted at the test.
+class X86EncoderTest {
+
+    @Test
+    void registerToRegister() {
+        assertEncoding(bytes(0x89, 0xCE), Opcode.MOV, reg("ecx"), reg("esi"));
+        // REX.R and REX.B for r8-r15
+        assertEncoding(bytes(0x45, 0x89, 0xE5), Opcode.MOV, reg("r12d"), reg("r13d"));
+        assertEncoding(bytes(0x41, 0x89, 0xED), Opcode.MOV, reg("ebp"), reg("r13d"));
+        assertEncoding(bytes(0x44, 0x89, 0xEC), Opcode.MOV, reg("r13d"), reg("esp"));
+        assertEncoding(bytes(0x44, 0x01, 0xCB), Opcode.ADD, reg("r9d"), reg("ebx"));
+        assertEncoding(bytes(0x44, 0x21, 0xF5), Opcode.AND, reg("r14d"), reg("ebp"));
+        assertEncoding(bytes(0x41, 0x39, 0xF0), Opcode.CMP, reg("esi"), reg("r8d"));
+        assertEncoding(bytes(0x41, 0x0F, 0xAF, 0xD9), Opcode.IMUL, reg("r9d"), reg("ebx"));
+        assertEncoding(bytes(0x45, 0x89, 0xE5), Opcode.MOV, temp("r12d"), temp("r13d"));
+    }
+
+    @Test
+    void immediates() {
+        // as uses the short form b8+r, the encoder always uses c7 /0
+        assertEncoding(bytes(0x41, 0xC7, 0xC4, 0x05, 0x00, 0x00, 0x00), Opcode.MOV, imm(5), reg("r12d"));
+        assertEncoding(bytes(0xC7, 0xC0, 0xFF, 0xFF, 0xFF, 0xFF), Opcode.MOV, imm(-1), reg("eax"));
+        // sign extended 8 bit immediates where they fit
+        assertEncoding(bytes(0x83, 0xC1, 0x64), Opcode.ADD, imm(100), reg("ecx"));
+        assertEncoding(bytes(0x41, 0x81, 0xC7, 0xE8, 0x03, 0x00, 0x00), Opcode.ADD, imm(1000), reg("r15d"));
+        assertEncoding(bytes(0x83, 0xF1, 0xFF), Opcode.XOR, imm(-1), reg("ecx"));
+        assertEncoding(bytes(0x81, 0xCF, 0xFF, 0x00, 0x00, 0x00), Opcode.OR, imm(255), reg("edi"));
+        assertEncoding(bytes(0x6B, 0xC9, 0x0A), Opcode.IMUL, imm(10), reg("ecx"));
+        assertEncoding(bytes(0x45, 0x69, 0xE4, 0xE8, 0x03, 0x00, 0x00), Opcode.IMUL, imm(1000), reg("r12d"));
+        assertEncoding(bytes(0xD1, 0xE0), Opcode.SHL, imm(1), reg("eax"));
+        assertEncoding(bytes(0x41, 0xC1, 0xE4, 0x03), Opcode.SHL, imm(3), reg("r12d"));
+    }
+
+    @Test
+    void stackPointerWithRexW() {
+        assertEncoding(bytes(0x48, 0x83, 0xEC, 0x10), Opcode.SUB, imm(16), reg("rsp"));
+        assertEncoding(bytes(0x48, 0x81, 0xEC, 0x00, 0x10, 0x00, 0x00), Opcode.SUB, imm(4096), reg("rsp"));
+        assertEncoding(bytes(0x48, 0x83, 0xC4, 0x10), Opcode.ADD, imm(16), reg("rsp"));
+    }
+
+    // the base %rsp always needs a SIB byte, the displacement is omitted, 8 or 32 bit
+    @Test
+    void stackSlots() {
+        assertEncoding(bytes(0x8B, 0x0C, 0x24), Opcode.MOV, slot(0), reg("ecx"));
+        assertEncoding(bytes(0x44, 0x8B, 0x64, 0x24, 0x08), Opcode.MOV, slot(8), reg("r12d"));
+        assertEncoding(bytes(0x44, 0x8B, 0xAC, 0x24, 0x00, 0x02, 0x00, 0x00), Opcode.MOV, slot(512), reg("r13d"));
+        assertEncoding(bytes(0x89, 0xAC, 0x24, 0xC8, 0x00, 0x00, 0x00), Opcode.MOV, reg("ebp"), slot(200));
+        assertEncoding(bytes(0x44, 0x89, 0x24, 0x24), Opcode.MOV, reg("r12d"), slot(0));
+        assertEncoding(bytes(0xC7, 0x44, 0x24, 0x10, 0x07, 0x00, 0x00, 0x00), Opcode.MOV, imm(7), slot(16));
+        assertEncoding(bytes(0x44, 0x03, 0x44, 0x24, 0x10), Opcode.ADD, slot(16), reg("r8d"));
+        assertEncoding(bytes(0x0F, 0xAF, 0x4C, 0x24, 0x08), Opcode.IMUL, slot(8), reg("ecx"));
+    }
+
+    @Test
+    void division() {
+        assertEncoding(bytes(0xF7, 0xF9), Opcode.IDIV, reg("ecx"));
+        assertEncoding(bytes(0x41, 0xF7, 0xFD), Opcode.IDIV, reg("r13d"));
+        assertEncoding(bytes(0xF7, 0x7C, 0x24, 0x08), Opcode.IDIV, slot(8));
+        assertEncoding(bytes(0xF7, 0xBC, 0x24, 0x00, 0x01, 0x00, 0x00), Opcode.IDIV, slot(256));
+        assertEncoding(bytes(0x48, 0x98), Opcode.CLTQ);
+        assertEncoding(bytes(0x48, 0x99), Opcode.CQTO);
+        assertEncoding(bytes(0xC3), Opcode.RET);
+    }
+
+    // a temp without a register is loaded into a spilling register and stored back afterwards
+    @Test
+    void spilledTemp() {
+        TempReg spilled = new TempReg(0);
+        spilled.setRegister(new Register(8));
+        assertEncoding(bytes(
+                0x44, 0x8B, 0x5C, 0x24, 0x08, // mov 8(%rsp), %r11d
+                0x41, 0x01, 0xCB, // add %ecx, %r11d
+                0x44, 0x89, 0x5C, 0x24, 0x08), // mov %r11d, 8(%rsp)
+            Opcode.ADD, reg("ecx"), spilled);
+    }
+
+    @Test
+    void entryStub() {
+        X86Encoder encoder = new X86Encoder(TargetRegisters.X86_64);
+        encoder.encodeEntryStub();
+        assertArrayEquals(bytes(
+                0xE8, 0x0C, 0x00, 0x00, 0x00, // call to the end of the stub
+                0x48, 0x89, 0xC7, // movq %rax, %rdi
+                0x48, 0xC7, 0xC0, 0x3C, 0x00, 0x00, 0x00, // movq $60, %rax (exit)
+                0x0F, 0x05), // syscall
+            encoder.toByteArray());
+    }
+
+    private static void assertEncoding(byte[] expected, Opcode opcode, Parameter... operands) {
+        Instruction<Parameter, Parameter> ins = switch (operands.length) {
+            case 0 -> new Instruction<>(0, opcode);
+            case 1 -> new Instruction<>(0, opcode, operands[0]);
+            default -> new Instruction<>(0, opcode, operands[0], operands[1]);
+        };
+        X86Encoder encoder = new X86Encoder(TargetRegisters.X86_64);
+        encoder.encode(ins);
+        assertArrayEquals(expected, encoder.toByteArray(), opcode.mnemonic);
+    }
+
+    private static FixReg reg(String name) {
+        return new FixReg(name);
+    }
+
+    // a temp assigned to the register, as after register allocation
+    private static TempReg temp(String register) {
+        TempReg temp = new TempReg(0);
+        temp.setRegister(new Register(register));
+        return temp;
+    }
+
+    private static Immediate imm(int value) {
+        return new Immediate(value);
+    }
+
+    private static StackSlot slot(int offset) {
+        return new StackSlot(offset);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+}
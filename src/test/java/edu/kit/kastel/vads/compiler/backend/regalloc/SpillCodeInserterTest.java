@@ -0,0 +1,101 @@
+package edu.kit.kastel.vads.compiler.backend.regalloc;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.kit.kastel.vads.compiler.CompilationContext;
+import edu.kit.kastel.vads.compiler.PassTimer;
+import edu.kit.kastel.vads.compiler.backend.instrsel.FixReg;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Immediate;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Instruction;
+import edu.kit.kastel.vads.compiler.backend.instrsel.InstructionSelector;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Opcode;
+import edu.kit.kastel.vads.compiler.backend.instrsel.Parameter;
+import edu.kit.kastel.vads.compiler.backend.instrsel.StackSlot;
+import edu.kit.kastel.vads.compiler.backend.instrsel.TempReg;
+import edu.kit.kastel.vads.compiler.ir.IrGraph;
+import edu.kit.kastel.vads.compiler.ir.SsaTranslation;
+import edu.kit.kastel.vads.compiler.ir.optimize.LocalValueNumbering;
+import edu.kit.kastel.vads.compiler.lexer.Lexer;
+import edu.kit.kastel.vads.compiler.parser.Parser;
+import edu.kit.kastel.vads.compiler.parser.TokenSource;
+import edu.kit.kastel.vads.compiler.parser.ast.ProgramTree;
+import edu.kit.kastel.vads.compiler.semantic.SemanticAnalysis;
+
+// Checks the instructions after register allocation with spilling, i.e. after SpillCodeInserter rewrote them.
+// Whether the rewritten program still computes the same is checked by ExecutableTest.
+class SpillCodeInserterTest {
+
+    // more values live at once than there are registers
+    private static final String PROGRAM = """
+        int main() {
+            int a = 3; int b = a * 5 + 1; int c = b - a * 2; int d = c * c + b; int e = d / 3 - a;
+            int f = e % 11 + d; int g = f * 7 - e; int h = g / b + c; int i = h * h - f; int j = i % 97 + g;
+            int k = j - h * 3; int l = k / 5 + i; int m = l * 2 - j; int n = m % 13 + k; int o = n + l / 7;
+            int p = o * 3 - m; int q = p / 2 + n; int r = q - o % 5;
+            return a + b / r + c * q - d % p + e / o - f * n + g % m - h / l + i * k - j;
+        }
+        """;
+
+    @Test
+    void spilledTempsAreOnlyAccessedThroughRegistersOrFoldedStackSlots() {
+        CompilationContext context = new CompilationContext(TargetRegisters.X86_64, new PassTimer("test", false));
+        InstructionSelector is = new InstructionSelector(context);
+        List<Instruction> instructions = is.performIS(translate(PROGRAM));
+
+        int stackSlots = RegisterAllocator.allocate(instructions, is, context);
+
+        assertTrue(stackSlots > 0, "expected the program to need stack slots");
+        boolean folded = false;
+        for (Instruction ins : instructions) {
+            Parameter left = ins.getLeft(), right = ins.getRight();
+            for (Parameter operand : new Parameter[] {left, right}) {
+                if (operand instanceof TempReg t) {
+                    assertNotNull(t.register, () -> "no register for %t" + t.id + " in " + describe(ins));
+                    assertFalse(t.hasStackSlot(), () -> "spilled %t" + t.id + " is still accessed by " + describe(ins));
+                }
+            }
+            assertFalse(left instanceof StackSlot && right instanceof StackSlot, () -> "two memory operands: " + describe(ins));
+            if (left instanceof StackSlot) {
+                folded = true;
+                assertTrue(ins.getOpcode().memorySource, () -> "memory source not allowed: " + describe(ins));
+            }
+            if (right instanceof StackSlot) {
+                folded = true;
+                // stores of spill code and folded defs, i.e. movs from a register or of an immediate
+                assertTrue(ins.getOpcode() == Opcode.MOV
+                        && (left instanceof TempReg || left instanceof FixReg || left instanceof Immediate),
+                    () -> "memory destination not allowed: " + describe(ins));
+            }
+        }
+        assertTrue(folded, "expected spilled values to be accessed on the stack");
+    }
+
+    private static List<IrGraph> translate(String source) {
+        ProgramTree program = new Parser(new TokenSource(Lexer.forString(source))).parseProgram();
+        new SemanticAnalysis(program).analyze();
+        return program.topLevelTrees().stream()
+            .map(function -> new SsaTranslation(function, new LocalValueNumbering()).translate())
+            .toList();
+    }
+
+    private static String describe(Instruction ins) {
+        return ins.getLabel() + ": " + ins.getOpcode().mnemonic + " " + describe(ins.getLeft()) + ", " + describe(ins.getRight());
+    }
+
+    private static String describe(Parameter p) {
+        return switch (p) {
+            case null -> "-";
+            case TempReg t -> "%t" + t.id;
+            case FixReg f -> "%" + f.name;
+            case StackSlot s -> s.offset + "(%rsp)";
+            case Immediate i -> "$" + i.value;
+            default -> p.toString();
+        };
+    }
+}